@@ -0,0 +1,47 @@
+package com.customerService.benchmark;
+
+import com.customerService.business.repository.model.AddressDAO;
+import com.customerService.business.repository.model.CustomerDAO;
+import com.customerService.model.Address;
+import com.customerService.model.Customer;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic fixtures, so every run of a benchmark works on the same data.
+ */
+final class BenchmarkData {
+
+    static final String[] COUNTRIES = {"Latvia", "Lithuania", "Estonia", "Finland", "Sweden"};
+    static final String[] CITIES = {"Riga", "Vilnius", "Tallinn", "Helsinki", "Stockholm"};
+
+    private BenchmarkData() {
+    }
+
+    static Customer customer(int i) {
+        Address address = new Address(null, "2" + String.format("%07d", i % 10_000_000),
+                COUNTRIES[i % COUNTRIES.length], CITIES[i % CITIES.length], "LV-" + (1000 + i % 9000));
+        return new Customer(null, "customer" + i + "@example.com", "password" + i,
+                "First" + i, "Last" + i, address, null);
+    }
+
+    static List<Customer> customers(int from, int count) {
+        List<Customer> customers = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            customers.add(customer(i));
+        }
+        return customers;
+    }
+
+    static CustomerDAO customerDAO(int i) {
+        Customer customer = customer(i);
+        Address address = customer.getAddress();
+        Instant updatedAt = Instant.ofEpochMilli(1_700_000_000_000L + i);
+        AddressDAO addressDAO = new AddressDAO((long) i, address.getPhoneNumber(), address.getCountry(),
+                address.getCity(), address.getPostalCode(), 1L, updatedAt);
+        return new CustomerDAO((long) i, customer.getEmail(), customer.getPassword(),
+                customer.getFirstName(), customer.getLastName(), addressDAO, 2L, updatedAt);
+    }
+}
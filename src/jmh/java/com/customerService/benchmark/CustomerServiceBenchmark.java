@@ -0,0 +1,126 @@
+package com.customerService.benchmark;
+
+import com.customerService.CustomerServiceApplication;
+import com.customerService.business.service.CustomerService;
+import com.customerService.model.BulkSaveResult;
+import com.customerService.model.Customer;
+import com.customerService.model.CustomerPage;
+import com.customerService.model.CustomerSearchCriteria;
+import com.customerService.model.CustomerSuggestion;
+import com.customerService.model.CustomersById;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CustomerServiceImpl with its repositories against the embedded H2 (MySQL mode) from the test properties.
+ * The cache is switched off so every call reaches the database, the table is seeded once per fork.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class CustomerServiceBenchmark {
+
+    private static final int SEED_CHUNK = 1000;
+    private static final int PAGE_SIZE = 50;
+    private static final int LOOKUP_SIZE = 100;
+
+    @Param({"10000"})
+    private int customerCount;
+
+    private ConfigurableApplicationContext context;
+    private CustomerService customerService;
+    private final List<Long> ids = new ArrayList<>();
+    private int nextEmail;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CustomerServiceApplication.class)
+                .properties("server.port=0",
+                        "spring.cache.type=none",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.customerService=WARN")
+                .run();
+        customerService = context.getBean(CustomerService.class);
+        for (int from = 0; from < customerCount; from += SEED_CHUNK) {
+            for (BulkSaveResult result : customerService.saveCustomers(BenchmarkData.customers(from, SEED_CHUNK))) {
+                ids.add(result.getCustomer().getId());
+            }
+        }
+        nextEmail = customerCount;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private final Random random = new Random(42);
+
+        int next(int bound) {
+            return random.nextInt(bound);
+        }
+    }
+
+    @Benchmark
+    public Optional<Customer> findCustomerById(Cursor cursor) {
+        return customerService.findCustomerById(ids.get(cursor.next(ids.size())));
+    }
+
+    @Benchmark
+    public CustomersById findCustomersByIds(Cursor cursor) {
+        int from = cursor.next(ids.size() - LOOKUP_SIZE);
+        return customerService.findCustomersByIds(ids.subList(from, from + LOOKUP_SIZE));
+    }
+
+    @Benchmark
+    public CustomerPage getCustomersPage(Cursor cursor) {
+        return customerService.getCustomersPage(ids.get(cursor.next(ids.size() - PAGE_SIZE)), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CustomerPage searchCustomers(Cursor cursor) {
+        int i = cursor.next(BenchmarkData.COUNTRIES.length);
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria(
+                BenchmarkData.COUNTRIES[i], BenchmarkData.CITIES[i], null, null);
+        return customerService.searchCustomers(criteria, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<CustomerSuggestion> suggestCustomers(Cursor cursor) {
+        return customerService.suggestCustomers("first" + cursor.next(100), 10);
+    }
+
+    @Benchmark
+    public Customer saveCustomer() {
+        int i;
+        synchronized (this) {
+            i = nextEmail++;
+        }
+        return customerService.saveCustomer(BenchmarkData.customer(i));
+    }
+}
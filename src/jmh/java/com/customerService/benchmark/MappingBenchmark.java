@@ -0,0 +1,55 @@
+package com.customerService.benchmark;
+
+import com.customerService.business.mappers.AddressMapperImpl;
+import com.customerService.business.mappers.CustomerMapper;
+import com.customerService.business.mappers.CustomerMapperImpl;
+import com.customerService.business.repository.model.CustomerDAO;
+import com.customerService.model.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct conversions between the API model and the entities.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private CustomerMapper customerMapper;
+    private Customer customer;
+    private CustomerDAO customerDAO;
+
+    @Setup
+    public void setUp() {
+        CustomerMapperImpl mapper = new CustomerMapperImpl();
+        ReflectionTestUtils.setField(mapper, "addressMapper", new AddressMapperImpl());
+        customerMapper = mapper;
+        customer = BenchmarkData.customer(1);
+        customerDAO = BenchmarkData.customerDAO(1);
+    }
+
+    @Benchmark
+    public Customer daoToCustomer() {
+        return customerMapper.daoToCustomer(customerDAO);
+    }
+
+    @Benchmark
+    public CustomerDAO customerToDAO() {
+        return customerMapper.customerToDAO(customer);
+    }
+}
@@ -0,0 +1,63 @@
+package com.customerService.benchmark;
+
+import com.customerService.model.Customer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson with the same defaults Spring's message converters use, one customer and a page of customers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"100"})
+    private int listSize;
+
+    private ObjectMapper objectMapper;
+    private Customer customer;
+    private List<Customer> customers;
+    private String customerJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        customer = BenchmarkData.customer(1);
+        customers = BenchmarkData.customers(0, listSize);
+        customerJson = objectMapper.writeValueAsString(customer);
+    }
+
+    @Benchmark
+    public byte[] serializeCustomer() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(customer);
+    }
+
+    @Benchmark
+    public byte[] serializeCustomerList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(customers);
+    }
+
+    @Benchmark
+    public Customer deserializeCustomer() throws JsonProcessingException {
+        return objectMapper.readValue(customerJson, Customer.class);
+    }
+}
@@ -0,0 +1,54 @@
+package com.customerService.business.concurrent;
+
+/**
+ * Write counters for keys, spread over a fixed number of stripes so memory does not grow with the keys.
+ * A reader takes the epoch of its key before reading and publishes what it read only if no write moved the
+ * epoch since. The check and the publish run under the stripe lock, so a write cannot slip in between.
+ * Keys sharing a stripe invalidate each other's reads now and then, which only costs a cache fill.
+ */
+public class WriteEpochs<K> {
+
+    private final long[] epochs;
+    private final Object[] locks;
+
+    public WriteEpochs(int stripes) {
+        this.epochs = new long[stripes];
+        this.locks = new Object[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public long current(K key) {
+        int stripe = stripe(key);
+        synchronized (locks[stripe]) {
+            return epochs[stripe];
+        }
+    }
+
+    public void advance(K key) {
+        int stripe = stripe(key);
+        synchronized (locks[stripe]) {
+            epochs[stripe]++;
+        }
+    }
+
+    /**
+     * Runs the action only if the key's epoch still equals the one taken before the read.
+     */
+    public boolean runIfUnchanged(K key, long epoch, Runnable action) {
+        int stripe = stripe(key);
+        synchronized (locks[stripe]) {
+            if (epochs[stripe] != epoch) {
+                return false;
+            }
+            action.run();
+            return true;
+        }
+    }
+
+    private int stripe(K key) {
+        int hash = key.hashCode();
+        return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % epochs.length;
+    }
+}
@@ -0,0 +1,24 @@
+package com.customerService.business.events;
+
+import com.customerService.model.Customer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by the service for every customer write; listeners see it only after the transaction commits.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CustomerChangeEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Type type;
+    private final Long customerId;
+    /**
+     * State after the write, null for deletes.
+     */
+    private final Customer customer;
+}
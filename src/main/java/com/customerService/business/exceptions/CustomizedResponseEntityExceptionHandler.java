@@ -1,23 +1,36 @@
 package com.customerService.business.exceptions;
 
+import com.customerService.business.metrics.CustomerMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeoutException;
 @Slf4j
 @RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExceptionHandler {
 
+    @Autowired
+    private CustomerMetrics customerMetrics;
+
     @Override
     public ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex,
                                   HttpHeaders headers, HttpStatus status, WebRequest request) {
@@ -34,4 +47,52 @@ public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExce
         log.info("Seems like validation issue occurred");
         return ResponseEntity.status(status).body(errorResponse);
     }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Object> handleConstraintViolation(ConstraintViolationException ex) {
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<?> violation : ex.getConstraintViolations()) {
+            errors.add(violation.getMessage());
+        }
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                HttpStatus.BAD_REQUEST.value(),
+                HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                "Validation failed",
+                errors.toString());
+        log.info("Seems like validation issue occurred");
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
+    @ExceptionHandler(EmailAlreadyExistsException.class)
+    public ResponseEntity<Object> handleEmailAlreadyExists(EmailAlreadyExistsException ex) {
+        log.info("The email {} is already registered", ex.getEmail());
+        customerMetrics.duplicateEmail();
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidSyncTokenException.class)
+    public ResponseEntity<Object> handleInvalidSyncToken(InvalidSyncTokenException ex) {
+        log.info("Invalid sync token {}", ex.getToken());
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        log.info("Conditional write rejected: {}", ex.getMessage());
+        return new ResponseEntity<>("Sorry, the customer was changed by another request, reload it and try again.",
+                HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(TimeoutException.class)
+    public ResponseEntity<Object> handleTimeout(TimeoutException ex) {
+        log.warn("Async customer call timed out: {}", ex.getMessage());
+        return new ResponseEntity<>("Sorry, the request took too long, try again later.", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Object> handleTaskRejected(TaskRejectedException ex) {
+        log.warn("Async customer call rejected: {}", ex.getMessage());
+        return new ResponseEntity<>("Sorry, the service is busy, try again later.", HttpStatus.SERVICE_UNAVAILABLE);
+    }
 }
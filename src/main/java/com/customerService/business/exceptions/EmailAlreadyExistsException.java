@@ -0,0 +1,17 @@
+package com.customerService.business.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a write hits the unique constraint on customer.email.
+ */
+@Getter
+public class EmailAlreadyExistsException extends RuntimeException {
+
+    private final String email;
+
+    public EmailAlreadyExistsException(String email, Throwable cause) {
+        super("Sorry, the email " + email + " is already registered.", cause);
+        this.email = email;
+    }
+}
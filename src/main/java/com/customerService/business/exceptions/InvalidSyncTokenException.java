@@ -0,0 +1,17 @@
+package com.customerService.business.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a delta sync token was not issued by the changes endpoint.
+ */
+@Getter
+public class InvalidSyncTokenException extends RuntimeException {
+
+    private final String token;
+
+    public InvalidSyncTokenException(String token, Throwable cause) {
+        super("Sorry, the sync token " + token + " is invalid.", cause);
+        this.token = token;
+    }
+}
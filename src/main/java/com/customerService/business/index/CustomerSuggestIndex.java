@@ -0,0 +1,173 @@
+package com.customerService.business.index;
+
+import com.customerService.business.repository.CustomerRepository;
+import com.customerService.model.CustomerSuggestion;
+import com.customerService.config.datasource.PrimaryReads;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix index over first name, last name and email of every customer, for typeahead.
+ * <p>
+ * Each customer has one sorted key per field, "lower-cased value \0 id", so a prefix query is a range
+ * scan of the skip list and matches come back in alphabetical order of the matched value. Names are
+ * interned because the same first and last names repeat across many customers.
+ * <p>
+ * The index is loaded at startup and changed by the service after the transaction commits, so
+ * rolled back writes never show up. Until loading is done only customers written since startup are found.
+ * Writes of other instances and of the reactive stack come in through CustomerSuggestIndexRefresher,
+ * so they are found a few seconds later.
+ */
+@Slf4j
+@Component
+public class CustomerSuggestIndex {
+
+    private static final char SEPARATOR = '\0';
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private final ConcurrentSkipListMap<String, CustomerSuggestion> entries = new ConcurrentSkipListMap<>();
+    private final Map<Long, CustomerSuggestion> byId = new ConcurrentHashMap<>();
+    private final Set<Long> changedWhileLoading = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        // Read from the primary, a lagging replica would leave recent customers out of the index
+        boolean previous = PrimaryReads.require();
+        try {
+            loading = true;
+            long count = 0;
+            try (Stream<CustomerSuggestion> suggestions = customerRepository.streamAllSuggestions()) {
+                for (CustomerSuggestion suggestion : (Iterable<CustomerSuggestion>) suggestions::iterator) {
+                    if (!changedWhileLoading.contains(suggestion.getId())) {
+                        index(suggestion);
+                        count++;
+                    }
+                }
+            } finally {
+                loading = false;
+                changedWhileLoading.clear();
+            }
+            loaded = true;
+            log.info("Suggest index loaded with {} customers, {} keys", count, entries.size());
+        } finally {
+            PrimaryReads.restore(previous);
+        }
+    }
+
+    /**
+     * Up to limit customers whose first name, last name or email starts with the prefix, ignoring case.
+     */
+    public List<CustomerSuggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        ConcurrentNavigableMap<String, CustomerSuggestion> range =
+                entries.subMap(normalized, true, normalized + Character.MAX_VALUE, false);
+        Set<CustomerSuggestion> matches = new LinkedHashSet<>();
+        for (CustomerSuggestion suggestion : range.values()) {
+            matches.add(suggestion);
+            if (matches.size() == limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(matches);
+    }
+
+    public void put(Long id, String email, String firstName, String lastName) {
+        CustomerSuggestion suggestion = new CustomerSuggestion(id, email, firstName, lastName);
+        afterCommit(() -> {
+            if (loading) {
+                changedWhileLoading.add(id);
+            }
+            index(suggestion);
+        });
+    }
+
+    public void removeAll(Collection<Long> ids) {
+        List<Long> removedIds = new ArrayList<>(ids);
+        afterCommit(() -> removedIds.forEach(id -> {
+            if (loading) {
+                changedWhileLoading.add(id);
+            }
+            remove(id);
+        }));
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int getSize() {
+        return byId.size();
+    }
+
+    /**
+     * Writers are serialized so the keys of a customer always match its byId entry, readers take no lock.
+     */
+    private synchronized void index(CustomerSuggestion suggestion) {
+        suggestion.setFirstName(suggestion.getFirstName().intern());
+        suggestion.setLastName(suggestion.getLastName().intern());
+        unindex(byId.put(suggestion.getId(), suggestion));
+        for (String key : keys(suggestion)) {
+            entries.put(key, suggestion);
+        }
+    }
+
+    private synchronized void remove(Long id) {
+        unindex(byId.remove(id));
+    }
+
+    private void unindex(CustomerSuggestion suggestion) {
+        if (suggestion != null) {
+            for (String key : keys(suggestion)) {
+                entries.remove(key, suggestion);
+            }
+        }
+    }
+
+    private static List<String> keys(CustomerSuggestion suggestion) {
+        List<String> keys = new ArrayList<>(3);
+        keys.add(normalize(suggestion.getFirstName()) + SEPARATOR + suggestion.getId());
+        keys.add(normalize(suggestion.getLastName()) + SEPARATOR + suggestion.getId());
+        keys.add(normalize(suggestion.getEmail()) + SEPARATOR + suggestion.getId());
+        return keys;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
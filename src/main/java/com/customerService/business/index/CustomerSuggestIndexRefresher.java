@@ -0,0 +1,88 @@
+package com.customerService.business.index;
+
+import com.customerService.business.service.CustomerService;
+import com.customerService.config.datasource.PrimaryReads;
+import com.customerService.model.Customer;
+import com.customerService.model.CustomerChanges;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Brings writes this instance did not make into the suggest index: writes of other instances and of the
+ * reactive stack. It polls the change feed behind GET /changes, so such a write shows up after the feed's
+ * safety lag plus the refresh interval. Polling starts from a token taken before the startup load,
+ * replaying the changes the load may have missed; replaying a change the index already holds is harmless.
+ */
+@Slf4j
+@Component
+public class CustomerSuggestIndexRefresher implements DisposableBean {
+
+    static final int PAGE_SIZE = 500;
+
+    private final CustomerService customerService;
+    private final CustomerSuggestIndex suggestIndex;
+    private final long refreshIntervalMs;
+    private ScheduledExecutorService refreshes;
+    private String token;
+
+    public CustomerSuggestIndexRefresher(CustomerService customerService, CustomerSuggestIndex suggestIndex,
+                                         @Value("${customer.suggest.refresh-interval-ms:10000}") long refreshIntervalMs,
+                                         @Value("${customer.changes.safety-lag-ms:5000}") long safetyLagMs) {
+        this.customerService = customerService;
+        this.suggestIndex = suggestIndex;
+        this.refreshIntervalMs = refreshIntervalMs;
+        this.token = (System.currentTimeMillis() - safetyLagMs) + "-0";
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (refreshIntervalMs <= 0) {
+            log.info("Suggest index refresh is disabled");
+            return;
+        }
+        refreshes = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "suggest-index-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refreshes.scheduleWithFixedDelay(this::refresh, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Applies every change page waiting in the feed. A failed poll keeps its token and is retried next time.
+     */
+    void refresh() {
+        // Read from the primary, a replica lagging more than the safety lag would skip changes for good
+        boolean previous = PrimaryReads.require();
+        try {
+            CustomerChanges changes;
+            do {
+                changes = customerService.getChangesSince(token, PAGE_SIZE);
+                for (Customer customer : changes.getChanged()) {
+                    suggestIndex.put(customer.getId(), customer.getEmail(), customer.getFirstName(), customer.getLastName());
+                }
+                suggestIndex.removeAll(changes.getDeletedIds());
+                token = changes.getNextToken();
+            } while (changes.isHasMore());
+        } catch (RuntimeException e) {
+            log.warn("Suggest index refresh from token {} failed", token, e);
+        } finally {
+            PrimaryReads.restore(previous);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (refreshes != null) {
+            refreshes.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.customerService.business.index;
+
+import com.customerService.business.repository.CustomerRepository;
+import com.customerService.config.datasource.PrimaryReads;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filter of all registered emails, so most checks for a new email skip the database.
+ * <p>
+ * Until the filter is loaded at startup every check goes to the database. A positive answer
+ * is always confirmed with existsByEmail, a negative one is exact for every email this instance has seen.
+ * Deleted emails stay in the filter and only show up as false positives. Emails are lower-cased
+ * because the MySQL unique index on customer.email is case-insensitive.
+ * <p>
+ * The lookup counters and the false-positive rate are published as customer.email.index.* meters.
+ */
+@Slf4j
+@Component
+public class EmailIndex implements MeterBinder {
+
+    public static final String METRIC_PREFIX = "customer.email.index";
+
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Value("${customer.email-index.expected-insertions:1000000}")
+    private long expectedInsertions;
+    @Value("${customer.email-index.false-positive-probability:0.01}")
+    private double falsePositiveProbability;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter loadingFilter;
+    private final AtomicLong size = new AtomicLong();
+
+    private final LongAdder skippedLookups = new LongAdder();
+    private final LongAdder confirmedPositives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(METRIC_PREFIX + ".lookups", this, EmailIndex::getSkippedLookups)
+                .description("Email checks answered by the email index without a database query")
+                .tag("result", "skipped")
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".lookups", this, EmailIndex::getConfirmedPositives)
+                .description("Email checks the email index passed on and the database confirmed")
+                .tag("result", "confirmed")
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".lookups", this, EmailIndex::getFalsePositives)
+                .description("Email checks the email index passed on for an email that is not registered")
+                .tag("result", "false_positive")
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".false.positive.rate", this, EmailIndex::getFalsePositiveRate)
+                .description("Share of unregistered emails the email index could not rule out")
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".size", this, EmailIndex::getSize)
+                .description("Emails added to the email index")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        // Read from the primary, a lagging replica would leave registered emails out of the filter
+        boolean previous = PrimaryReads.require();
+        try {
+            long capacity = Math.max(expectedInsertions, customerRepository.count() * 2);
+            BloomFilter newFilter = new BloomFilter(capacity, falsePositiveProbability);
+            loadingFilter = newFilter;
+            long count = 0;
+            try (Stream<String> emails = customerRepository.streamAllEmails()) {
+                for (String email : (Iterable<String>) emails::iterator) {
+                    newFilter.put(normalize(email));
+                    count++;
+                }
+            }
+            filter = newFilter;
+            loadingFilter = null;
+            size.set(count);
+            log.info("Email index loaded with {} emails, capacity {}, {} bits, {} hash functions",
+                    count, capacity, newFilter.getBitCount(), newFilter.getHashCount());
+        } finally {
+            PrimaryReads.restore(previous);
+        }
+    }
+
+    /**
+     * False means the email is certainly not registered, true means the database has to be asked.
+     */
+    public boolean mightContain(String email) {
+        BloomFilter current = filter;
+        if (current == null) {
+            return true;
+        }
+        if (current.mightContain(normalize(email))) {
+            return true;
+        }
+        skippedLookups.increment();
+        return false;
+    }
+
+    /**
+     * Records the database answer for an email the filter reported as possibly present.
+     */
+    public void recordDatabaseResult(boolean exists) {
+        if (filter == null) {
+            return;
+        }
+        if (exists) {
+            confirmedPositives.increment();
+        } else {
+            falsePositives.increment();
+        }
+    }
+
+    public void add(String email) {
+        String normalized = normalize(email);
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(normalized);
+        }
+        BloomFilter loading = loadingFilter;
+        if (loading != null) {
+            loading.put(normalized);
+        }
+        size.incrementAndGet();
+    }
+
+    public boolean isLoaded() {
+        return filter != null;
+    }
+
+    public long getSize() {
+        return size.get();
+    }
+
+    public long getSkippedLookups() {
+        return skippedLookups.sum();
+    }
+
+    public long getConfirmedPositives() {
+        return confirmedPositives.sum();
+    }
+
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    /**
+     * Share of unregistered emails the filter could not rule out.
+     */
+    public double getFalsePositiveRate() {
+        long negatives = skippedLookups.sum() + falsePositives.sum();
+        return negatives == 0 ? 0.0 : (double) falsePositives.sum() / negatives;
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
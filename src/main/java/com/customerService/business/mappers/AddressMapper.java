@@ -2,10 +2,30 @@ package com.customerService.business.mappers;
 
 import com.customerService.business.repository.model.AddressDAO;
 import com.customerService.model.Address;
+import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.Named;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 
 @Mapper(componentModel = "spring")
 public interface AddressMapper {
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
     AddressDAO addressToDAO (Address address);
     Address daoToAddress (AddressDAO addressDAO);
+
+    @Named("updateAddressDAO")
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    void updateAddressDAO(Address address, @MappingTarget AddressDAO addressDAO);
+
+    @Named("patchAddressDAO")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    void patchAddressDAO(Address address, @MappingTarget AddressDAO addressDAO);
 }
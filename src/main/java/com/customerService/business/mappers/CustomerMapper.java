@@ -2,17 +2,41 @@ package com.customerService.business.mappers;
 
 import com.customerService.business.repository.model.CustomerDAO;
 import com.customerService.model.Customer;
+import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
-import org.mapstruct.Mappings;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 
 
 @Mapper(componentModel = "spring", uses = AddressMapper.class)
 public interface CustomerMapper {
 
     @Mapping(source = "address", target = "addressDAO")
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
     CustomerDAO customerToDAO(Customer customer);
 
     @Mapping(source = "addressDAO", target = "address")
+    @Mapping(source = "aggregateVersion", target = "version")
     Customer daoToCustomer(CustomerDAO customerDAO);
+
+    /**
+     * Copies every field of a full update onto the managed entity; ids and versions are kept.
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(source = "address", target = "addressDAO", qualifiedByName = "updateAddressDAO")
+    void updateCustomerDAO(Customer customer, @MappingTarget CustomerDAO customerDAO);
+
+    /**
+     * Copies only the non-null fields of a partial update onto the managed entity; ids and versions are kept.
+     */
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(source = "address", target = "addressDAO", qualifiedByName = "patchAddressDAO")
+    void patchCustomerDAO(Customer customer, @MappingTarget CustomerDAO customerDAO);
 }
@@ -0,0 +1,62 @@
+package com.customerService.business.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Business counters of the customer API, scraped together with the timers from /actuator/prometheus.
+ * Tags are limited to the matched request pattern so the number of series stays bounded.
+ */
+@Component
+public class CustomerMetrics {
+
+    public static final String DUPLICATE_EMAILS = "customer.email.duplicates";
+    public static final String NOT_FOUND_RESPONSES = "customer.responses.not.found";
+    public static final String STATEMENTS_PER_REQUEST = "customer.hibernate.statements";
+    public static final String REJECTED_REQUESTS = "customer.requests.rejected";
+
+    private final MeterRegistry meterRegistry;
+    private final Counter duplicateEmails;
+
+    public CustomerMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.duplicateEmails = Counter.builder(DUPLICATE_EMAILS)
+                .description("Customer entries rejected because their email is already registered or repeated")
+                .register(meterRegistry);
+    }
+
+    public void duplicateEmail() {
+        duplicateEmails.increment();
+    }
+
+    public void notFound(String uri) {
+        Counter.builder(NOT_FOUND_RESPONSES)
+                .description("Requests answered with 404")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void statements(String uri, long count) {
+        DistributionSummary.builder(STATEMENTS_PER_REQUEST)
+                .description("SQL statements prepared by Hibernate while handling one request")
+                .baseUnit("statements")
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(count);
+    }
+
+    /**
+     * Counts requests turned away by load shedding, tagged with the limit that was reached.
+     */
+    public void rejected(String limit) {
+        Counter.builder(REJECTED_REQUESTS)
+                .description("Requests rejected by a concurrency or rate limit")
+                .tag("limit", limit)
+                .register(meterRegistry)
+                .increment();
+    }
+}
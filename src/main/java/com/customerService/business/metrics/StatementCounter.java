@@ -0,0 +1,31 @@
+package com.customerService.business.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between start() and stop().
+ * Registered as the session factory's statement inspector, the SQL itself is passed through unchanged.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private final ThreadLocal<long[]> count = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        long[] current = count.get();
+        if (current != null) {
+            current[0]++;
+        }
+        return sql;
+    }
+
+    public void start() {
+        count.set(new long[1]);
+    }
+
+    public long stop() {
+        long[] current = count.get();
+        count.remove();
+        return current == null ? 0 : current[0];
+    }
+}
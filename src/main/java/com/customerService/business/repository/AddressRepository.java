@@ -2,9 +2,18 @@ package com.customerService.business.repository;
 
 import com.customerService.business.repository.model.AddressDAO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+
 @Repository
 public interface AddressRepository extends JpaRepository<AddressDAO,Long> {
 
+    @Modifying
+    @Query("delete from AddressDAO a where a.id in :ids")
+    int deleteAddressesByIds(@Param("ids") Collection<Long> ids);
+
 }
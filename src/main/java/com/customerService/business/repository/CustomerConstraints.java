@@ -0,0 +1,42 @@
+package com.customerService.business.repository;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.regex.Pattern;
+
+/**
+ * Tells which constraint a failed write hit. The unique constraint on customer.email is declared inline
+ * in V1.0.1, so its name is generated: MySQL and MariaDB name the index after the column and report it as
+ * 'email' or 'customer.email', H2 reports its generated index name followed by the indexed column.
+ */
+public final class CustomerConstraints {
+
+    private static final Pattern UNIQUE_EMAIL = Pattern.compile(
+            "^(customer\\.)?email$|for key '(customer\\.)?email'|\\.customer\\(email\\b", Pattern.CASE_INSENSITIVE);
+
+    private CustomerConstraints() {
+    }
+
+    /**
+     * True only for the unique email constraint. Hibernate's ConstraintViolationException carries the
+     * constraint name, other drivers (R2DBC) only the message of the root cause.
+     */
+    public static boolean isUniqueEmailViolation(DataIntegrityViolationException e) {
+        Throwable cause = e;
+        while (cause != null) {
+            if (cause instanceof ConstraintViolationException) {
+                return matchesUniqueEmail(((ConstraintViolationException) cause).getConstraintName());
+            }
+            if (cause.getCause() == null || cause.getCause() == cause) {
+                return matchesUniqueEmail(cause.getMessage());
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
+    private static boolean matchesUniqueEmail(String text) {
+        return text != null && UNIQUE_EMAIL.matcher(text).find();
+    }
+}
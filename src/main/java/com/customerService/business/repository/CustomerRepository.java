@@ -1,12 +1,116 @@
 package com.customerService.business.repository;
 
+import com.customerService.business.repository.model.CustomerAddressId;
 import com.customerService.business.repository.model.CustomerDAO;
+import com.customerService.business.repository.model.CustomerView;
+import com.customerService.model.CustomerSuggestion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
-public interface CustomerRepository extends JpaRepository<CustomerDAO,Long> {
+public interface CustomerRepository extends JpaRepository<CustomerDAO,Long>, CustomerSearchRepository {
+
+    String SELECT_CUSTOMER_VIEW = "select new com.customerService.business.repository.model.CustomerView(" +
+            "c.id, c.email, c.password, c.firstName, c.lastName, a.id, a.phoneNumber, a.country, a.city, a.postalCode, " +
+            "c.version + a.version) " +
+            "from CustomerDAO c join c.addressDAO a";
 
     boolean existsByEmail(String email);
 
+    @Query("select c.email from CustomerDAO c where c.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Address is fetched in the same select, without the entity graph the eager OneToOne
+     * is loaded with one extra select per customer.
+     */
+    @Override
+    @EntityGraph(attributePaths = "addressDAO")
+    List<CustomerDAO> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "addressDAO")
+    Optional<CustomerDAO> findById(Long id);
+
+    @Query(SELECT_CUSTOMER_VIEW + " where c.id = :id")
+    Optional<CustomerView> findViewById(@Param("id") Long id);
+
+    @Query(SELECT_CUSTOMER_VIEW + " order by c.id")
+    List<CustomerView> findAllViews();
+
+    @Query(SELECT_CUSTOMER_VIEW + " where c.id in :ids")
+    List<CustomerView> findViewsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Keyset (seek) page: only the page size is taken from the pageable, the position comes from afterId,
+     * so the database seeks on the primary key instead of skipping OFFSET rows.
+     */
+    @Query(SELECT_CUSTOMER_VIEW + " where c.id > :afterId order by c.id")
+    List<CustomerView> findViewPageAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Keyset page of customers changed after (since, afterId) up to until, ordered by change time and id.
+     * updated_at is bumped by address changes too, so this one index range covers both tables.
+     */
+    @QueryHints(value = @QueryHint(name = HINT_READONLY, value = "true"))
+    @Query("select c from CustomerDAO c join fetch c.addressDAO " +
+            "where (c.updatedAt > :since or (c.updatedAt = :since and c.id > :afterId)) and c.updatedAt <= :until " +
+            "order by c.updatedAt, c.id")
+    List<CustomerDAO> findChangedPageAfter(@Param("since") Instant since, @Param("afterId") Long afterId,
+                                           @Param("until") Instant until, Pageable pageable);
+
+    /**
+     * Ids of the customers that exist among the given ids, with the ids of their addresses.
+     */
+    @Query("select new com.customerService.business.repository.model.CustomerAddressId(c.id, c.addressDAO.id) " +
+            "from CustomerDAO c where c.id in :ids")
+    List<CustomerAddressId> findCustomerAddressIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Bulk delete without loading the entities, the address rows have to be deleted separately afterwards.
+     */
+    @Modifying
+    @Query("delete from CustomerDAO c where c.id in :ids")
+    int deleteCustomersByIds(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(value = {
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select c.email from CustomerDAO c")
+    Stream<String> streamAllEmails();
+
+    @QueryHints(value = {
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select new com.customerService.model.CustomerSuggestion(c.id, c.email, c.firstName, c.lastName) from CustomerDAO c")
+    Stream<CustomerSuggestion> streamAllSuggestions();
+
+    /**
+     * Streams all customers through a server-side cursor (useCursorFetch on the MySQL url),
+     * has to be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(value = {
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")})
+    @Query("select c from CustomerDAO c join fetch c.addressDAO order by c.id")
+    Stream<CustomerDAO> streamAll();
+
 }
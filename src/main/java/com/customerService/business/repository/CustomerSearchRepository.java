@@ -0,0 +1,15 @@
+package com.customerService.business.repository;
+
+import com.customerService.business.repository.model.CustomerDAO;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface CustomerSearchRepository {
+
+    /**
+     * Keyset page of the customers matching the specification: up to limit customers with id greater
+     * than afterId, ordered by id, with the address fetched in the same statement.
+     */
+    List<CustomerDAO> findPageAfterId(Specification<CustomerDAO> specification, long afterId, int limit);
+}
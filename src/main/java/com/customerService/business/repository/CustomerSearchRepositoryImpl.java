@@ -0,0 +1,40 @@
+package com.customerService.business.repository;
+
+import com.customerService.business.repository.model.CustomerDAO;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public class CustomerSearchRepositoryImpl implements CustomerSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CustomerDAO> findPageAfterId(Specification<CustomerDAO> specification, long afterId, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CustomerDAO> query = builder.createQuery(CustomerDAO.class);
+        Root<CustomerDAO> root = query.from(CustomerDAO.class);
+        root.fetch("addressDAO");
+        Predicate predicate = builder.greaterThan(root.get("id"), afterId);
+        if (specification != null) {
+            Predicate filter = specification.toPredicate(root, query, builder);
+            if (filter != null) {
+                predicate = builder.and(predicate, filter);
+            }
+        }
+        query.select(root).where(predicate).orderBy(builder.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .setHint(HINT_READONLY, true)
+                .getResultList();
+    }
+}
@@ -0,0 +1,73 @@
+package com.customerService.business.repository;
+
+import com.customerService.business.repository.model.AddressDAO;
+import com.customerService.business.repository.model.CustomerDAO;
+import com.customerService.model.CustomerSearchCriteria;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Fetch;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Root;
+
+/**
+ * Composable search filters. Every filter matches a column covered by an index from V1.0.4,
+ * an empty value leaves the filter out.
+ */
+public final class CustomerSpecifications {
+
+    private CustomerSpecifications() {
+    }
+
+    public static Specification<CustomerDAO> matching(CustomerSearchCriteria criteria) {
+        return Specification.where(countryEquals(criteria.getCountry()))
+                .and(cityEquals(criteria.getCity()))
+                .and(postalCodeEquals(criteria.getPostalCode()))
+                .and(lastNameStartsWith(criteria.getLastName()));
+    }
+
+    public static Specification<CustomerDAO> countryEquals(String country) {
+        return isEmpty(country) ? null : (root, query, builder) -> builder.equal(address(root).get("country"), country);
+    }
+
+    public static Specification<CustomerDAO> cityEquals(String city) {
+        return isEmpty(city) ? null : (root, query, builder) -> builder.equal(address(root).get("city"), city);
+    }
+
+    public static Specification<CustomerDAO> postalCodeEquals(String postalCode) {
+        return isEmpty(postalCode) ? null : (root, query, builder) -> builder.equal(address(root).get("postalCode"), postalCode);
+    }
+
+    /**
+     * A prefix match, so the last_name index is range scanned; wildcards in the input are escaped.
+     */
+    public static Specification<CustomerDAO> lastNameStartsWith(String lastName) {
+        if (isEmpty(lastName)) {
+            return null;
+        }
+        String pattern = lastName.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, builder) -> builder.like(root.get("lastName"), pattern, '\\');
+    }
+
+    /**
+     * Reuses the address fetch or join already on the query, so filtering on the address
+     * does not join the table a second time.
+     */
+    @SuppressWarnings("unchecked")
+    private static Join<CustomerDAO, AddressDAO> address(Root<CustomerDAO> root) {
+        for (Fetch<CustomerDAO, ?> fetch : root.getFetches()) {
+            if ("addressDAO".equals(fetch.getAttribute().getName())) {
+                return (Join<CustomerDAO, AddressDAO>) fetch;
+            }
+        }
+        for (Join<CustomerDAO, ?> join : root.getJoins()) {
+            if ("addressDAO".equals(join.getAttribute().getName())) {
+                return (Join<CustomerDAO, AddressDAO>) join;
+            }
+        }
+        return root.join("addressDAO");
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,34 @@
+package com.customerService.business.repository;
+
+import com.customerService.business.repository.model.CustomerTombstoneDAO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CustomerTombstoneRepository extends JpaRepository<CustomerTombstoneDAO, Long> {
+
+    /**
+     * Records a tombstone for every listed customer that still exists, so it has to run before the delete.
+     */
+    @Modifying
+    @Query(value = "insert into customer_tombstone (customer_id, deleted_at) " +
+            "select id, :deletedAt from customer where id in :ids", nativeQuery = true)
+    int insertForExistingCustomers(@Param("ids") Collection<Long> ids, @Param("deletedAt") Instant deletedAt);
+
+    /**
+     * Keyset page of tombstones after (since, afterId) up to until, ordered like the changed customers.
+     */
+    @Query("select t from CustomerTombstoneDAO t " +
+            "where (t.deletedAt > :since or (t.deletedAt = :since and t.customerId > :afterId)) and t.deletedAt <= :until " +
+            "order by t.deletedAt, t.customerId")
+    List<CustomerTombstoneDAO> findPageAfter(@Param("since") Instant since, @Param("afterId") Long afterId,
+                                             @Param("until") Instant until, Pageable pageable);
+}
@@ -0,0 +1,88 @@
+package com.customerService.business.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.id.IdentifierGenerationException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Hands out ids from blocks of the id_sequence table, taking the blocks on a small connection pool of its own.
+ * <p>
+ * Hibernate's TableGenerator takes a block on a second connection of the main pool while the transaction
+ * that needs the id may already hold one. When every pooled connection belongs to a transaction waiting for
+ * a block, no block can be taken. Connections of this pool are held for the select and update of next_val
+ * only, so they always come back. Blocks follow the pooled-lo layout of TableGenerator: a block starts at
+ * next_val, which is moved on by the block size.
+ */
+@Slf4j
+public class IdBlockAllocator implements AutoCloseable {
+
+    private static final String SELECT_NEXT_VAL =
+            "select next_val from id_sequence where sequence_name = ? for update";
+    private static final String UPDATE_NEXT_VAL =
+            "update id_sequence set next_val = ? where sequence_name = ?";
+
+    private final HikariDataSource dataSource;
+    private final ConcurrentMap<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public IdBlockAllocator(HikariDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Next id of the segment, a new block of blockSize ids is taken when the current one is used up.
+     */
+    public long next(String segment, int blockSize) {
+        Block block = blocks.computeIfAbsent(segment, key -> new Block());
+        synchronized (block) {
+            if (block.next == block.end) {
+                block.next = takeBlock(segment, blockSize);
+                block.end = block.next + blockSize;
+            }
+            return block.next++;
+        }
+    }
+
+    private long takeBlock(String segment, int blockSize) {
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement select = connection.prepareStatement(SELECT_NEXT_VAL);
+                 PreparedStatement update = connection.prepareStatement(UPDATE_NEXT_VAL)) {
+                select.setString(1, segment);
+                long start;
+                try (ResultSet resultSet = select.executeQuery()) {
+                    if (!resultSet.next()) {
+                        throw new IdentifierGenerationException("No id_sequence row for segment " + segment);
+                    }
+                    start = resultSet.getLong(1);
+                }
+                update.setLong(1, start + blockSize);
+                update.setString(2, segment);
+                update.executeUpdate();
+                connection.commit();
+                log.debug("Took ids {} to {} of segment {}", start, start + blockSize - 1, segment);
+                return start;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IdentifierGenerationException("Could not take a block of ids for segment " + segment, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+
+    private static final class Block {
+        private long next;
+        private long end;
+    }
+}
@@ -0,0 +1,40 @@
+package com.customerService.business.repository;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Properties;
+
+/**
+ * TableGenerator that takes its blocks through the IdBlockAllocator found in the Hibernate settings,
+ * see DataSourceConfig. Without one (JPA slice tests) it falls back to the TableGenerator it extends.
+ * Segment and increment size are the generator parameters, the table is id_sequence with the default columns.
+ */
+public class IdBlockTableGenerator extends TableGenerator {
+
+    public static final String ALLOCATOR = "customer.id_block_allocator";
+
+    private IdBlockAllocator allocator;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        super.configure(type, params, serviceRegistry);
+        Object setting = serviceRegistry.getService(ConfigurationService.class).getSettings().get(ALLOCATOR);
+        if (setting instanceof IdBlockAllocator) {
+            allocator = (IdBlockAllocator) setting;
+        }
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object obj) {
+        if (allocator == null) {
+            return super.generate(session, obj);
+        }
+        return allocator.next(getSegmentValue(), getIncrementSize());
+    }
+}
@@ -3,6 +3,10 @@ package com.customerService.business.repository.model;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -10,15 +14,23 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.Version;
+import java.time.Instant;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@DynamicUpdate
 @Table(name = "address")
 public class AddressDAO {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "address_id")
+    @GenericGenerator(name = "address_id", strategy = "com.customerService.business.repository.IdBlockTableGenerator", parameters = {
+            @Parameter(name = "table_name", value = "id_sequence"),
+            @Parameter(name = "segment_value", value = "address"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")})
     private Long id;
 
     @Column(name = "phone_number", nullable = false, length = 11)
@@ -32,4 +44,12 @@ public class AddressDAO {
 
     @Column(name = "postal_code", nullable = false, length = 10)
     private String postalCode;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
 }
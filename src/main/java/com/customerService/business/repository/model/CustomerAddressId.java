@@ -0,0 +1,14 @@
+package com.customerService.business.repository.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Id of an existing customer together with the id of its address, built by a JPQL constructor expression.
+ */
+@Getter
+@AllArgsConstructor
+public class CustomerAddressId {
+    private final Long customerId;
+    private final Long addressId;
+}
@@ -3,6 +3,10 @@ package com.customerService.business.repository.model;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -13,16 +17,28 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
+import javax.persistence.Version;
+import java.time.Instant;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@DynamicUpdate
 @Table(name = "customer")
 public class CustomerDAO {
 
+    /**
+     * Ids come in blocks of 50 per instance from the id_sequence table, so inserts need no
+     * generated-key round trip and Hibernate can batch them.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "customer_id")
+    @GenericGenerator(name = "customer_id", strategy = "com.customerService.business.repository.IdBlockTableGenerator", parameters = {
+            @Parameter(name = "table_name", value = "id_sequence"),
+            @Parameter(name = "segment_value", value = "customer"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")})
     private Long id;
 
     @Column(name = "email", nullable = false, length = 50, unique = true)
@@ -41,4 +57,22 @@ public class CustomerDAO {
     @JoinColumn(name = "address_id", nullable = false)
     private AddressDAO addressDAO;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    /**
+     * Version of the customer together with its address. Both row versions only grow, so the sum
+     * changes whenever either row is updated; it is what clients see as the ETag.
+     */
+    public Long getAggregateVersion() {
+        if (version == null || addressDAO == null || addressDAO.getVersion() == null) {
+            return null;
+        }
+        return version + addressDAO.getVersion();
+    }
 }
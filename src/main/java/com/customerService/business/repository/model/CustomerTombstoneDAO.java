@@ -0,0 +1,29 @@
+package com.customerService.business.repository.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.Instant;
+
+/**
+ * Marker left behind by a deleted customer, so delta sync clients learn about the delete.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "customer_tombstone")
+public class CustomerTombstoneDAO {
+
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+}
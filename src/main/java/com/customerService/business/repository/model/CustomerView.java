@@ -0,0 +1,31 @@
+package com.customerService.business.repository.model;
+
+import com.customerService.model.Address;
+import com.customerService.model.Customer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Read-only row of a customer joined with its address, built by a JPQL constructor expression.
+ * It is not a managed entity, so reading it needs no persistence context snapshot and no mapper.
+ */
+@Getter
+@AllArgsConstructor
+public class CustomerView {
+    private final Long id;
+    private final String email;
+    private final String password;
+    private final String firstName;
+    private final String lastName;
+    private final Long addressId;
+    private final String phoneNumber;
+    private final String country;
+    private final String city;
+    private final String postalCode;
+    private final Long version;
+
+    public Customer toCustomer() {
+        Address address = new Address(addressId, phoneNumber, country, city, postalCode);
+        return new Customer(id, email, password, firstName, lastName, address, version);
+    }
+}
@@ -0,0 +1,26 @@
+package com.customerService.business.service;
+
+import com.customerService.model.Customer;
+import com.customerService.model.CustomersById;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking companion of CustomerService for callers that fan out to several lookups. Every call runs
+ * on the bounded customer service executor and fails with a TimeoutException once its timeout has passed,
+ * or with a TaskRejectedException when the executor's queue is full.
+ */
+public interface AsyncCustomerService {
+    CompletableFuture<Optional<Customer>> findCustomerByIdAsync(Long id);
+
+    CompletableFuture<Optional<Customer>> findCustomerByIdAsync(Long id, Duration timeout);
+
+    CompletableFuture<CustomersById> findCustomersAsync(Collection<Long> ids);
+
+    CompletableFuture<CustomersById> findCustomersAsync(Collection<Long> ids, Duration timeout);
+
+    CompletableFuture<Boolean> isEmailExistingAsync(String email);
+}
@@ -1,21 +1,47 @@
 package com.customerService.business.service;
 
+import com.customerService.model.BulkSaveResult;
 import com.customerService.model.Customer;
+import com.customerService.model.CustomerChanges;
+import com.customerService.model.CustomerPage;
+import com.customerService.model.CustomerSearchCriteria;
+import com.customerService.model.CustomerSuggestion;
+import com.customerService.model.CustomersById;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface CustomerService {
     List<Customer> getAllCustomers();
 
+    CustomerPage getCustomersPage(Long cursor, int size);
+
+    CustomerPage searchCustomers(CustomerSearchCriteria criteria, Long cursor, int size);
+
+    CustomerChanges getChangesSince(String token, int size);
+
+    long exportCustomers(Consumer<Customer> consumer);
+
     Optional<Customer> findCustomerById(Long id);
 
+    CustomersById findCustomersByIds(Collection<Long> ids);
+
+    List<CustomerSuggestion> suggestCustomers(String prefix, int limit);
+
     Customer saveCustomer(Customer customer);
 
+    List<BulkSaveResult> saveCustomers(List<Customer> customers);
+
     Customer editCustomerById(Long id, Customer updatedCustomer);
 
+    Customer patchCustomerById(Long id, Customer patch);
+
     Boolean deleteCustomerById(Long id);
 
+    int deleteCustomersByIds(Collection<Long> ids);
+
     boolean isEmailExisting(String email);
     boolean isCustomerPresent(Long id);
 }
@@ -0,0 +1,104 @@
+package com.customerService.business.service.impl;
+
+import com.customerService.business.service.AsyncCustomerService;
+import com.customerService.business.service.CustomerService;
+import com.customerService.config.AsyncConfig;
+import com.customerService.model.Customer;
+import com.customerService.model.CustomersById;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs CustomerService calls on the customer service executor, so caching, transactions and metrics
+ * apply as for synchronous callers. A timed out call only releases its caller, the database work
+ * still finishes on the pool thread.
+ */
+@Service
+@Slf4j
+public class AsyncCustomerServiceImpl implements AsyncCustomerService, DisposableBean {
+
+    private final CustomerService customerService;
+    private final AsyncTaskExecutor executor;
+    private final Duration defaultTimeout;
+    private final ScheduledThreadPoolExecutor timeouts;
+
+    public AsyncCustomerServiceImpl(CustomerService customerService,
+                                    @Qualifier(AsyncConfig.CUSTOMER_SERVICE_EXECUTOR) AsyncTaskExecutor executor,
+                                    @Value("${customer.async.timeout-ms:2000}") long defaultTimeoutMs) {
+        this.customerService = customerService;
+        this.executor = executor;
+        this.defaultTimeout = Duration.ofMillis(defaultTimeoutMs);
+        this.timeouts = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "customer-async-timeouts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timeouts.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Customer>> findCustomerByIdAsync(Long id) {
+        return findCustomerByIdAsync(id, defaultTimeout);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Customer>> findCustomerByIdAsync(Long id, Duration timeout) {
+        return supply("findCustomerById", () -> customerService.findCustomerById(id), timeout);
+    }
+
+    @Override
+    public CompletableFuture<CustomersById> findCustomersAsync(Collection<Long> ids) {
+        return findCustomersAsync(ids, defaultTimeout);
+    }
+
+    @Override
+    public CompletableFuture<CustomersById> findCustomersAsync(Collection<Long> ids, Duration timeout) {
+        return supply("findCustomersByIds", () -> customerService.findCustomersByIds(ids), timeout);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isEmailExistingAsync(String email) {
+        return supply("isEmailExisting", () -> customerService.isEmailExisting(email), defaultTimeout);
+    }
+
+    private <T> CompletableFuture<T> supply(String operation, Supplier<T> call, Duration timeout) {
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(call, executor);
+        } catch (TaskRejectedException e) {
+            log.warn("Customer service executor is full, rejected {}", operation);
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+        CompletableFuture<T> result = future;
+        ScheduledFuture<?> timer = timeouts.schedule(() -> {
+            if (result.completeExceptionally(new TimeoutException(
+                    operation + " did not complete within " + timeout.toMillis() + " ms"))) {
+                log.warn("{} timed out after {} ms", operation, timeout.toMillis());
+            }
+        }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        result.whenComplete((value, error) -> timer.cancel(false));
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        timeouts.shutdownNow();
+    }
+}
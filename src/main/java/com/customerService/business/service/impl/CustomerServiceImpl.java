@@ -1,66 +1,462 @@
 package com.customerService.business.service.impl;
 
+import com.customerService.business.concurrent.SingleFlight;
+import com.customerService.business.concurrent.WriteEpochs;
+import com.customerService.business.events.CustomerChangeEvent;
+import com.customerService.business.exceptions.EmailAlreadyExistsException;
+import com.customerService.business.exceptions.InvalidSyncTokenException;
+import com.customerService.business.index.CustomerSuggestIndex;
+import com.customerService.business.index.EmailIndex;
 import com.customerService.business.mappers.AddressMapper;
 import com.customerService.business.mappers.CustomerMapper;
+import com.customerService.business.metrics.CustomerMetrics;
+import com.customerService.business.repository.AddressRepository;
+import com.customerService.business.repository.CustomerConstraints;
 import com.customerService.business.repository.CustomerRepository;
-import com.customerService.business.repository.model.AddressDAO;
+import com.customerService.business.repository.CustomerSpecifications;
+import com.customerService.business.repository.CustomerTombstoneRepository;
+import com.customerService.business.repository.model.CustomerAddressId;
 import com.customerService.business.repository.model.CustomerDAO;
+import com.customerService.business.repository.model.CustomerTombstoneDAO;
+import com.customerService.business.repository.model.CustomerView;
 import com.customerService.business.service.CustomerService;
+import com.customerService.config.CacheConfig;
+import com.customerService.config.datasource.PrimaryReads;
+import com.customerService.model.Address;
+import com.customerService.model.BulkSaveResult;
 import com.customerService.model.Customer;
+import com.customerService.model.CustomerChanges;
+import com.customerService.model.CustomerPage;
+import com.customerService.model.CustomerSearchCriteria;
+import com.customerService.model.CustomerSuggestion;
+import com.customerService.model.CustomersById;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import javax.transaction.Transactional;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
+@Timed(value = "customer.service", histogram = true)
 public class CustomerServiceImpl implements CustomerService {
+    private static final int WRITE_EPOCH_STRIPES = 1024;
+
     @Autowired
     private CustomerRepository customerRepository;
     @Autowired
+    private AddressRepository addressRepository;
+    @Autowired
     private CustomerMapper customerMapper;
     @Autowired
     private AddressMapper addressMapper;
+    @Autowired
+    private Validator validator;
+    @Autowired
+    private EmailIndex emailIndex;
+    @Autowired
+    private CustomerSuggestIndex suggestIndex;
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private CustomerTombstoneRepository tombstoneRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private CustomerMetrics customerMetrics;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private CacheManager cacheManager;
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+    @Value("${customer.changes.safety-lag-ms:5000}")
+    private long changesSafetyLagMs;
+
+    private final SingleFlight<Long, Optional<Customer>> customerLookups = new SingleFlight<>();
+    private final SingleFlight<String, Boolean> emailLookups = new SingleFlight<>();
+    private final WriteEpochs<Long> customerWrites = new WriteEpochs<>(WRITE_EPOCH_STRIPES);
 
+    /**
+     * Read methods build the API models straight from CustomerView projections,
+     * no entities are managed and nothing goes through the mappers.
+     */
     @Override
+    @Transactional(readOnly = true)
     public List<Customer> getAllCustomers() {
-        List<Customer> list = customerRepository.findAll()
+        List<Customer> list = customerRepository.findAllViews()
                 .stream()
-                .map(customerMapper::daoToCustomer)
+                .map(CustomerView::toCustomer)
                 .collect(Collectors.toList());
         log.info("Size of the Customer list: {}", list.size());
         return list;
     }
 
+    /**
+     * Reads one row more than requested to find out whether a next page exists,
+     * the id of the last returned customer becomes the cursor of the next page.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerPage getCustomersPage(Long cursor, int size) {
+        long afterId = cursor == null ? 0L : cursor;
+        List<CustomerView> customerViews = customerRepository.findViewPageAfterId(afterId, PageRequest.of(0, size + 1));
+        boolean hasNext = customerViews.size() > size;
+        List<Customer> customers = customerViews.stream()
+                .limit(size)
+                .map(CustomerView::toCustomer)
+                .collect(Collectors.toList());
+        Long nextCursor = hasNext ? customerViews.get(size - 1).getId() : null;
+        log.info("Customer page after id {} has {} entries, next cursor: {}", afterId, customers.size(), nextCursor);
+        return new CustomerPage(customers, nextCursor);
+    }
+
+    /**
+     * Same keyset paging as getCustomersPage, restricted to the customers matching the criteria.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerPage searchCustomers(CustomerSearchCriteria criteria, Long cursor, int size) {
+        long afterId = cursor == null ? 0L : cursor;
+        List<CustomerDAO> customerDAOs = customerRepository.findPageAfterId(
+                CustomerSpecifications.matching(criteria), afterId, size + 1);
+        boolean hasNext = customerDAOs.size() > size;
+        List<Customer> customers = customerDAOs.stream()
+                .limit(size)
+                .map(customerMapper::daoToCustomer)
+                .collect(Collectors.toList());
+        Long nextCursor = hasNext ? customerDAOs.get(size - 1).getId() : null;
+        log.info("Customer search {} after id {} has {} entries, next cursor: {}", criteria, afterId, customers.size(), nextCursor);
+        return new CustomerPage(customers, nextCursor);
+    }
+
+    /**
+     * Changed customers and tombstones are read as two keyset pages over the same (time, id) order and
+     * merged. Rows younger than the safety lag are left for the next call, so a transaction committing
+     * late with an older updated_at is not skipped. The token is the position of the last returned entry.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerChanges getChangesSince(String token, int size) {
+        Instant since = Instant.EPOCH;
+        long afterId = 0L;
+        if (token != null && !token.isEmpty()) {
+            try {
+                String[] parts = token.split("-", 2);
+                since = Instant.ofEpochMilli(Long.parseLong(parts[0]));
+                afterId = Long.parseLong(parts[1]);
+            } catch (RuntimeException e) {
+                throw new InvalidSyncTokenException(token, e);
+            }
+        }
+        Instant until = Instant.ofEpochMilli(System.currentTimeMillis() - changesSafetyLagMs);
+        PageRequest page = PageRequest.of(0, size + 1);
+        Iterator<CustomerDAO> changedDAOs = customerRepository.findChangedPageAfter(since, afterId, until, page).iterator();
+        Iterator<CustomerTombstoneDAO> tombstones = tombstoneRepository.findPageAfter(since, afterId, until, page).iterator();
+        List<Customer> changed = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        CustomerDAO nextChanged = changedDAOs.hasNext() ? changedDAOs.next() : null;
+        CustomerTombstoneDAO nextTombstone = tombstones.hasNext() ? tombstones.next() : null;
+        while (changed.size() + deletedIds.size() < size && (nextChanged != null || nextTombstone != null)) {
+            if (nextTombstone == null || (nextChanged != null && isBefore(nextChanged, nextTombstone))) {
+                changed.add(customerMapper.daoToCustomer(nextChanged));
+                since = nextChanged.getUpdatedAt();
+                afterId = nextChanged.getId();
+                nextChanged = changedDAOs.hasNext() ? changedDAOs.next() : null;
+            } else {
+                deletedIds.add(nextTombstone.getCustomerId());
+                since = nextTombstone.getDeletedAt();
+                afterId = nextTombstone.getCustomerId();
+                nextTombstone = tombstones.hasNext() ? tombstones.next() : null;
+            }
+        }
+        boolean hasMore = nextChanged != null || nextTombstone != null;
+        String nextToken = since.toEpochMilli() + "-" + afterId;
+        log.info("Changes since token {}: {} changed, {} deleted, next token {}", token, changed.size(), deletedIds.size(), nextToken);
+        return new CustomerChanges(changed, deletedIds, nextToken, hasMore);
+    }
+
+    private static boolean isBefore(CustomerDAO customerDAO, CustomerTombstoneDAO tombstone) {
+        int byTime = customerDAO.getUpdatedAt().compareTo(tombstone.getDeletedAt());
+        return byTime < 0 || (byTime == 0 && customerDAO.getId() < tombstone.getCustomerId());
+    }
+
+    /**
+     * Hands every customer to the consumer one by one while the rows are read from the cursor.
+     * Each entity is detached right after mapping so the persistence context does not grow with the table.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportCustomers(Consumer<Customer> consumer) {
+        long count = 0;
+        try (Stream<CustomerDAO> customerDAOStream = customerRepository.streamAll()) {
+            Iterator<CustomerDAO> iterator = customerDAOStream.iterator();
+            while (iterator.hasNext()) {
+                CustomerDAO customerDAO = iterator.next();
+                consumer.accept(customerMapper.daoToCustomer(customerDAO));
+                entityManager.detach(customerDAO);
+                count++;
+            }
+        }
+        log.info("Exported {} customers", count);
+        return count;
+    }
+
+    /**
+     * Found customers are cached by id, missing ids are not, so a newly saved customer
+     * never has a cached entry to invalidate. Concurrent cache misses for the same id share one query.
+     * The cache is shared by all clients and checked before any routing decision, so it is filled from
+     * the primary: a lagging replica would cache an old or deleted customer past the read-your-writes window.
+     * For the same reason a caller that requires primary reads can safely join a shared query.
+     * <p>
+     * A write committing while the query runs may have come too late for it, and its put or evict may already
+     * be done by the time the query returns. The query therefore caches its result only if no write to the id
+     * committed since it started, see onCustomerChange. Writes on other instances are not seen here,
+     * the short expiry bounds how long such an entry stays stale.
+     */
     @Override
     public Optional<Customer> findCustomerById(Long id) {
-        Optional<CustomerDAO> customerDAO = customerRepository.findById(id);
-        if (!customerDAO.isPresent()) {
-            log.info("Customer with id {} does not exist.", id);
-            return Optional.empty();
+        Cache cache = cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE);
+        Customer cachedCustomer = cache.get(id, Customer.class);
+        if (cachedCustomer != null) {
+            return Optional.of(cachedCustomer);
+        }
+        return customerLookups.execute(id, () -> {
+            long epoch = customerWrites.current(id);
+            boolean previous = PrimaryReads.require();
+            try {
+                Optional<CustomerView> customerView = customerRepository.findViewById(id);
+                if (!customerView.isPresent()) {
+                    log.info("Customer with id {} does not exist.", id);
+                    return Optional.empty();
+                }
+                log.info("Customer with id {} found.", id);
+                Customer customer = customerView.get().toCustomer();
+                if (!customerWrites.runIfUnchanged(id, epoch, () -> cache.put(id, customer))) {
+                    log.info("Customer with id {} was written while it was read, not caching it.", id);
+                }
+                return Optional.of(customer);
+            } finally {
+                PrimaryReads.restore(previous);
+            }
+        });
+    }
+
+    /**
+     * All ids are read with one join query, duplicates in the request are looked up once.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CustomersById findCustomersByIds(Collection<Long> ids) {
+        Set<Long> requestedIds = new LinkedHashSet<>(ids);
+        Map<Long, Customer> foundCustomers = customerRepository.findViewsByIds(requestedIds).stream()
+                .collect(Collectors.toMap(CustomerView::getId, CustomerView::toCustomer));
+        Map<Long, Customer> customers = new LinkedHashMap<>();
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requestedIds) {
+            Customer customer = foundCustomers.get(id);
+            if (customer != null) {
+                customers.put(id, customer);
+            } else {
+                missingIds.add(id);
+            }
         }
-        log.info("Customer with id {} found.", id);
-        return customerDAO.map(customerMapper::daoToCustomer);
+        log.info("Found {} of {} requested customers, missing ids: {}", customers.size(), requestedIds.size(), missingIds);
+        return new CustomersById(customers, missingIds);
+    }
+
+    @Override
+    public List<CustomerSuggestion> suggestCustomers(String prefix, int limit) {
+        List<CustomerSuggestion> suggestions = suggestIndex.suggest(prefix, limit);
+        log.info("Found {} suggestions for prefix {}", suggestions.size(), prefix);
+        return suggestions;
     }
 
+    /**
+     * The insert is flushed right away so a duplicate email surfaces here, as EmailAlreadyExistsException,
+     * from the unique constraint on customer.email instead of failing at commit.
+     */
     @Override
     @Transactional
     public Customer saveCustomer(Customer customer) {
         CustomerDAO newCustomerDAO = customerMapper.customerToDAO(customer);
-        newCustomerDAO = customerRepository.save(newCustomerDAO);
+        newCustomerDAO = saveAndFlush(newCustomerDAO);
         if (newCustomerDAO != null) {
+            emailIndex.add(newCustomerDAO.getEmail());
+            addToSuggestIndex(newCustomerDAO);
             log.info("Customer with ID {} is saved successfully.", newCustomerDAO.getId());
-            return customerMapper.daoToCustomer(newCustomerDAO);
+            Customer savedCustomer = customerMapper.daoToCustomer(newCustomerDAO);
+            publishChange(CustomerChangeEvent.Type.CREATED, newCustomerDAO.getId(), savedCustomer);
+            return savedCustomer;
         }
         log.warn("Failed to save customer.");
         return null;
     }
 
+    /**
+     * Validates every entry, rejects emails repeated in the request or already registered
+     * (one IN query on the primary for the emails the email index cannot rule out),
+     * and inserts the rest in chunks of the JDBC batch size. Every chunk commits in a transaction of its own,
+     * so a failing chunk does not take the earlier ones with it. When the unique constraint rejects an email
+     * the pre-check missed, for example one registered concurrently, that chunk is retried customer by customer
+     * and only the offending entries are reported. Results keep the order of the request list.
+     */
+    @Override
+    public List<BulkSaveResult> saveCustomers(List<Customer> customers) {
+        BulkSaveResult[] results = new BulkSaveResult[customers.size()];
+        Set<String> requestedEmails = new HashSet<>();
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int i = 0; i < customers.size(); i++) {
+            Customer customer = customers.get(i);
+            if (customer == null) {
+                results[i] = new BulkSaveResult(i, 400, null, "Sorry, the entry must not be null.");
+                continue;
+            }
+            Set<ConstraintViolation<Customer>> violations = validator.validate(customer);
+            if (!violations.isEmpty()) {
+                List<String> errors = violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .collect(Collectors.toList());
+                results[i] = new BulkSaveResult(i, 400, null, "Validation failed: " + errors);
+            } else if (!requestedEmails.add(customer.getEmail().toLowerCase(Locale.ROOT))) {
+                customerMetrics.duplicateEmail();
+                results[i] = new BulkSaveResult(i, 400, null,
+                        "Sorry, the email " + customer.getEmail() + " is repeated in the request.");
+            } else {
+                validIndexes.add(i);
+            }
+        }
+        Set<String> existingEmails = findExistingEmails(requestedEmails);
+
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        List<Integer> chunkIndexes = new ArrayList<>();
+        for (Integer i : validIndexes) {
+            Customer customer = customers.get(i);
+            if (existingEmails.contains(customer.getEmail().toLowerCase(Locale.ROOT))) {
+                rejectRegisteredEmail(customer, i, results);
+                continue;
+            }
+            chunkIndexes.add(i);
+            if (chunkIndexes.size() == batchSize) {
+                saveChunk(chunkTransaction, customers, chunkIndexes, results);
+            }
+        }
+        if (!chunkIndexes.isEmpty()) {
+            saveChunk(chunkTransaction, customers, chunkIndexes, results);
+        }
+        log.info("Bulk save of {} customers finished.", customers.size());
+        return Arrays.asList(results);
+    }
+
+    private Set<String> findExistingEmails(Set<String> requestedEmails) {
+        List<String> candidateEmails = requestedEmails.stream()
+                .filter(emailIndex::mightContain)
+                .collect(Collectors.toList());
+        Set<String> existingEmails = new HashSet<>();
+        if (!candidateEmails.isEmpty()) {
+            boolean previous = PrimaryReads.require();
+            try {
+                customerRepository.findExistingEmails(candidateEmails)
+                        .forEach(email -> existingEmails.add(email.toLowerCase(Locale.ROOT)));
+            } finally {
+                PrimaryReads.restore(previous);
+            }
+        }
+        return existingEmails;
+    }
+
+    private void saveChunk(TransactionTemplate chunkTransaction, List<Customer> customers, List<Integer> chunkIndexes,
+                           BulkSaveResult[] results) {
+        try {
+            chunkTransaction.executeWithoutResult(status -> insertChunk(customers, chunkIndexes, results));
+        } catch (DataIntegrityViolationException e) {
+            if (!CustomerConstraints.isUniqueEmailViolation(e)) {
+                throw e;
+            }
+            log.info("Unique constraint rejected an email of a batch of {} customers, saving them one by one", chunkIndexes.size());
+            for (Integer index : chunkIndexes) {
+                try {
+                    chunkTransaction.executeWithoutResult(
+                            status -> insertChunk(customers, Collections.singletonList(index), results));
+                } catch (DataIntegrityViolationException rowException) {
+                    if (!CustomerConstraints.isUniqueEmailViolation(rowException)) {
+                        throw rowException;
+                    }
+                    rejectRegisteredEmail(customers.get(index), index, results);
+                }
+            }
+        }
+        chunkIndexes.clear();
+    }
+
+    /**
+     * Entities are mapped afresh on every attempt, a rolled back chunk leaves ids and versions behind on its
+     * entities. The flush goes through the repository so a constraint violation arrives translated.
+     */
+    private void insertChunk(List<Customer> customers, List<Integer> chunkIndexes, BulkSaveResult[] results) {
+        List<CustomerDAO> chunk = chunkIndexes.stream()
+                .map(index -> customerMapper.customerToDAO(customers.get(index)))
+                .collect(Collectors.toList());
+        List<CustomerDAO> savedCustomerDAOList = customerRepository.saveAll(chunk);
+        customerRepository.flush();
+        for (int i = 0; i < savedCustomerDAOList.size(); i++) {
+            int index = chunkIndexes.get(i);
+            CustomerDAO savedCustomerDAO = savedCustomerDAOList.get(i);
+            emailIndex.add(savedCustomerDAO.getEmail());
+            addToSuggestIndex(savedCustomerDAO);
+            Customer savedCustomer = customerMapper.daoToCustomer(savedCustomerDAO);
+            publishChange(CustomerChangeEvent.Type.CREATED, savedCustomerDAO.getId(), savedCustomer);
+            results[index] = new BulkSaveResult(index, 201, savedCustomer, null);
+        }
+        entityManager.clear();
+        log.info("Saved a batch of {} customers.", savedCustomerDAOList.size());
+    }
+
+    private void rejectRegisteredEmail(Customer customer, int index, BulkSaveResult[] results) {
+        customerMetrics.duplicateEmail();
+        results[index] = new BulkSaveResult(index, 400, null,
+                "Sorry, the email " + customer.getEmail() + " is already registered.");
+    }
+
     /**
      * Method is running within a transaction.It ensures that the method is executed as a single unit,
      * and if any part of the method fails, the entire transaction is rolled back.
@@ -68,17 +464,25 @@ public class CustomerServiceImpl implements CustomerService {
      * Update is happening only in URL providing id,
      * addressDAO id in customerDAO table is ignored and will not be changed  because of OneToMany rel.
      * id - in customerDAO and addressDAO table are ignored to avoid mismatched id's is request body
+     * <p>
+     * The customer is loaded once and missing ids return null. A taken email is reported by the
+     * unique constraint as EmailAlreadyExistsException, keeping the customer's own email is allowed.
+     * A version on the request (from If-Match) must equal the stored one, see checkVersion.
      */
     @Override
     @Transactional
+    @CachePut(cacheNames = CacheConfig.CUSTOMERS_CACHE, key = "#id", unless = "#result == null")
     public Customer editCustomerById(Long id, Customer updatedCustomer) {
         CustomerDAO existingCustomerDAO = customerRepository.findById(id).orElse(null);
         if (existingCustomerDAO != null) {
-            BeanUtils.copyProperties(updatedCustomer, existingCustomerDAO, "id", "addressDAO");
-            AddressDAO existingAddressDAO = existingCustomerDAO.getAddressDAO();
-            AddressDAO updatedAddressDAO = addressMapper.addressToDAO(updatedCustomer.getAddress());
-            BeanUtils.copyProperties(updatedAddressDAO, existingAddressDAO, "id");
-            Customer updatedCustomerObject = customerMapper.daoToCustomer(customerRepository.save(existingCustomerDAO));
+            checkVersion(existingCustomerDAO, updatedCustomer.getVersion());
+            Address addressBefore = addressMapper.daoToAddress(existingCustomerDAO.getAddressDAO());
+            customerMapper.updateCustomerDAO(updatedCustomer, existingCustomerDAO);
+            touchIfAddressChanged(existingCustomerDAO, addressBefore);
+            Customer updatedCustomerObject = customerMapper.daoToCustomer(saveAndFlush(existingCustomerDAO));
+            emailIndex.add(existingCustomerDAO.getEmail());
+            addToSuggestIndex(existingCustomerDAO);
+            publishChange(CustomerChangeEvent.Type.UPDATED, id, updatedCustomerObject);
             log.info("Updated customer details: {}", updatedCustomerObject);
             return updatedCustomerObject;
         }
@@ -86,11 +490,83 @@ public class CustomerServiceImpl implements CustomerService {
         return null;
     }
 
+    /**
+     * Partial update: only the non-null fields of the patch are validated and copied onto the
+     * loaded entities. Both entities use dynamic updates, so the flush writes only the changed
+     * columns, and nothing at all when the values are unchanged.
+     */
+    @Override
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.CUSTOMERS_CACHE, key = "#id", unless = "#result == null")
+    public Customer patchCustomerById(Long id, Customer patch) {
+        Set<ConstraintViolation<Customer>> violations = validator.validate(patch).stream()
+                .filter(violation -> violation.getInvalidValue() != null)
+                .collect(Collectors.toSet());
+        if (!violations.isEmpty()) {
+            throw new javax.validation.ConstraintViolationException(violations);
+        }
+        CustomerDAO existingCustomerDAO = customerRepository.findById(id).orElse(null);
+        if (existingCustomerDAO != null) {
+            checkVersion(existingCustomerDAO, patch.getVersion());
+            Address addressBefore = addressMapper.daoToAddress(existingCustomerDAO.getAddressDAO());
+            customerMapper.patchCustomerDAO(patch, existingCustomerDAO);
+            touchIfAddressChanged(existingCustomerDAO, addressBefore);
+            Customer patchedCustomer = customerMapper.daoToCustomer(saveAndFlush(existingCustomerDAO));
+            if (patch.getEmail() != null) {
+                emailIndex.add(existingCustomerDAO.getEmail());
+            }
+            addToSuggestIndex(existingCustomerDAO);
+            publishChange(CustomerChangeEvent.Type.UPDATED, id, patchedCustomer);
+            log.info("Patched customer details: {}", patchedCustomer);
+            return patchedCustomer;
+        }
+        log.warn("Customer with ID {} not found for patching.", id);
+        return null;
+    }
+
+    /**
+     * Rejects a conditional write made against an older version. A write racing in between this check
+     * and the flush is caught by the version columns in the UPDATE statements.
+     */
+    private void checkVersion(CustomerDAO customerDAO, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(customerDAO.getAggregateVersion())) {
+            log.info("Customer with ID {} is at version {}, the request expected {}",
+                    customerDAO.getId(), customerDAO.getAggregateVersion(), expectedVersion);
+            throw new OptimisticLockingFailureException("Customer " + customerDAO.getId() + " was changed");
+        }
+    }
+
+    /**
+     * customer.updated_at is the change time of the customer together with its address, so an address-only
+     * change has to mark the customer row as updated as well.
+     */
+    private void touchIfAddressChanged(CustomerDAO customerDAO, Address addressBefore) {
+        if (!Objects.equals(addressBefore, addressMapper.daoToAddress(customerDAO.getAddressDAO()))) {
+            customerDAO.setUpdatedAt(Instant.now());
+        }
+    }
+
+    private CustomerDAO saveAndFlush(CustomerDAO customerDAO) {
+        try {
+            return customerRepository.saveAndFlush(customerDAO);
+        } catch (DataIntegrityViolationException e) {
+            if (CustomerConstraints.isUniqueEmailViolation(e)) {
+                log.info("Unique constraint rejected email {}", customerDAO.getEmail());
+                throw new EmailAlreadyExistsException(customerDAO.getEmail(), e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Deletes with statements only, no entity is loaded: the address ids are selected, then customers
+     * and addresses are removed by id. The customer row count tells whether the id existed.
+     */
     @Transactional
     @Override
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS_CACHE, key = "#id")
     public Boolean deleteCustomerById(Long id) {
-        if (isCustomerPresent(id)) {
-            customerRepository.deleteById(id);
+        if (deleteByIds(Collections.singletonList(id)) == 1) {
             log.info("Customer entry with id: {} is deleted", id);
             return true;
         } else
@@ -98,11 +574,74 @@ public class CustomerServiceImpl implements CustomerService {
         return false;
     }
 
+    @Transactional
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS_CACHE, allEntries = true)
+    public int deleteCustomersByIds(Collection<Long> ids) {
+        int deleted = deleteByIds(new LinkedHashSet<>(ids));
+        log.info("Deleted {} of {} requested customer entries", deleted, ids.size());
+        return deleted;
+    }
+
+    /**
+     * Only the ids the first select found are tombstoned, deleted and published as DELETED.
+     */
+    private int deleteByIds(Collection<Long> ids) {
+        List<CustomerAddressId> existing = customerRepository.findCustomerAddressIds(ids);
+        if (existing.isEmpty()) {
+            return 0;
+        }
+        List<Long> customerIds = existing.stream().map(CustomerAddressId::getCustomerId).collect(Collectors.toList());
+        List<Long> addressIds = existing.stream().map(CustomerAddressId::getAddressId).collect(Collectors.toList());
+        tombstoneRepository.insertForExistingCustomers(customerIds, Instant.now());
+        int deleted = customerRepository.deleteCustomersByIds(customerIds);
+        addressRepository.deleteAddressesByIds(addressIds);
+        suggestIndex.removeAll(customerIds);
+        customerIds.forEach(id -> publishChange(CustomerChangeEvent.Type.DELETED, id, null));
+        return deleted;
+    }
+
+    /**
+     * A lookup still in flight when a write commits may have read the old state, so callers arriving
+     * from now on start a new one, and the running one does not cache what it read. This runs at commit,
+     * before the write's own cache put or evict. Emails are all forgotten because deletes and email changes
+     * do not carry the email that was removed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCustomerChange(CustomerChangeEvent event) {
+        customerLookups.forget(event.getCustomerId());
+        customerWrites.advance(event.getCustomerId());
+        emailLookups.forgetAll();
+    }
+
+    /**
+     * Listeners receive the event after the surrounding transaction commits.
+     */
+    private void publishChange(CustomerChangeEvent.Type type, Long id, Customer customer) {
+        eventPublisher.publishEvent(new CustomerChangeEvent(type, id, customer));
+    }
+
+    private void addToSuggestIndex(CustomerDAO customerDAO) {
+        suggestIndex.put(customerDAO.getId(), customerDAO.getEmail(), customerDAO.getFirstName(), customerDAO.getLastName());
+    }
+
+    /**
+     * Concurrent checks of the same email share one query, except for callers that must read from the
+     * primary: the shared query may be running on a replica that has not seen their write yet.
+     */
     @Override
     public boolean isEmailExisting(String email) {
-        boolean emailExists = customerRepository.existsByEmail(email);
-        log.info("Email '{}' exists in database: {}", email, emailExists);
-        return emailExists;
+        if (!emailIndex.mightContain(email)) {
+            log.info("Email '{}' is not registered according to the email index", email);
+            return false;
+        }
+        Supplier<Boolean> lookup = () -> {
+            boolean emailExists = customerRepository.existsByEmail(email);
+            emailIndex.recordDatabaseResult(emailExists);
+            log.info("Email '{}' exists in database: {}", email, emailExists);
+            return emailExists;
+        };
+        return PrimaryReads.isRequired() ? lookup.get() : emailLookups.execute(email, lookup);
     }
 
     @Override
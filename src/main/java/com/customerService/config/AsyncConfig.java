@@ -0,0 +1,83 @@
+package com.customerService.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Collections;
+
+/**
+ * Executor behind AsyncCustomerService. It is bounded in threads and queue, so a burst of lookups waits
+ * for a database connection in the queue or is rejected, instead of piling up threads. The pool size
+ * should stay at or below the connection pool size.
+ * <p>
+ * Server-Sent Events are written on an executor of their own, so subscribers on slow sockets cannot take
+ * the threads of async requests and exports, and the other way around.
+ */
+@Configuration
+public class AsyncConfig {
+
+    public static final String CUSTOMER_SERVICE_EXECUTOR = "customerServiceExecutor";
+    public static final String CHANGE_STREAM_EXECUTOR = "changeStreamExecutor";
+
+    /**
+     * Spring Boot's applicationTaskExecutor backs off as soon as any other executor bean exists,
+     * so it is declared here the way Spring Boot would build it. It runs async MVC requests such as the
+     * export, spring.task.execution.pool.* bounds its threads and queue.
+     */
+    @Lazy
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(CUSTOMER_SERVICE_EXECUTOR)
+    public ThreadPoolTaskExecutor customerServiceExecutor(@Value("${customer.async.pool-size:10}") int poolSize,
+                                                          @Value("${customer.async.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("customer-async-");
+        executor.setTaskDecorator(new RequestContextTaskDecorator());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    /**
+     * Pool size, active threads, queue depth and completed/rejected tasks as customer.async.executor.* meters.
+     */
+    @Bean
+    public MeterBinder customerServiceExecutorMetrics(@Qualifier(CUSTOMER_SERVICE_EXECUTOR) ThreadPoolTaskExecutor customerServiceExecutor) {
+        return registry -> new ExecutorServiceMetrics(customerServiceExecutor.getThreadPoolExecutor(),
+                "customer.async", Collections.emptyList()).bindTo(registry);
+    }
+
+    /**
+     * Runs the change stream drains, at most one per subscriber at a time, so the queue capacity bounds
+     * the number of subscribers waiting for a thread.
+     */
+    @Bean(CHANGE_STREAM_EXECUTOR)
+    public ThreadPoolTaskExecutor changeStreamExecutor(@Value("${customer.stream.send-pool-size:4}") int poolSize,
+                                                       @Value("${customer.stream.send-queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("change-stream-");
+        return executor;
+    }
+
+    @Bean
+    public MeterBinder changeStreamExecutorMetrics(@Qualifier(CHANGE_STREAM_EXECUTOR) ThreadPoolTaskExecutor changeStreamExecutor) {
+        return registry -> new ExecutorServiceMetrics(changeStreamExecutor.getThreadPoolExecutor(),
+                "customer.stream", Collections.emptyList()).bindTo(registry);
+    }
+}
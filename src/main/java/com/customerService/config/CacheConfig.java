@@ -0,0 +1,18 @@
+package com.customerService.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Caffeine backed caches, names and size/expiry spec come from spring.cache.* properties.
+ * The cache advice is ordered outside the transaction advice, so entries are put or evicted
+ * only after the write has committed.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String CUSTOMERS_CACHE = "customers";
+
+}
@@ -0,0 +1,41 @@
+package com.customerService.config;
+
+import com.customerService.config.datasource.PrimaryReads;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.Map;
+
+/**
+ * Runs a task with the MDC and the PrimaryReads setting of the thread that submitted it, and puts the pool
+ * thread's own back afterwards. Without PrimaryReads, a client inside its read-your-writes window would
+ * read from a replica as soon as its lookup moves to a pool thread.
+ */
+public class RequestContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        boolean primaryReads = PrimaryReads.isRequired();
+        return () -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            boolean previousPrimaryReads = PrimaryReads.isRequired();
+            setContext(context);
+            PrimaryReads.restore(primaryReads);
+            try {
+                runnable.run();
+            } finally {
+                setContext(previous);
+                PrimaryReads.restore(previousPrimaryReads);
+            }
+        };
+    }
+
+    private static void setContext(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.customerService.config;
+
+import com.customerService.web.limit.LimitProperties;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring Boot's MVC auto-configuration is switched off by @EnableWebMvc in SwaggerConfig,
+ * so async request handling is configured here. The default timeout applies to the async lookups and is
+ * kept short; the export and the change stream set long timeouts of their own.
+ * The limits of the load shedding filters in web.limit are bound here as well.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(LimitProperties.class)
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final long asyncRequestTimeout;
+
+    public WebConfig(@Qualifier("applicationTaskExecutor") AsyncTaskExecutor applicationTaskExecutor,
+                     @Value("${customer.async.request-timeout-ms:30000}") long asyncRequestTimeout) {
+        this.applicationTaskExecutor = applicationTaskExecutor;
+        this.asyncRequestTimeout = asyncRequestTimeout;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(applicationTaskExecutor);
+        configurer.setDefaultTimeout(asyncRequestTimeout);
+    }
+}
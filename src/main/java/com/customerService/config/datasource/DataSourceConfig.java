@@ -0,0 +1,96 @@
+package com.customerService.config.datasource;
+
+import com.customerService.business.repository.IdBlockAllocator;
+import com.customerService.business.repository.IdBlockTableGenerator;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The primary pool is built from spring.datasource.* as Spring Boot would, the replicas from
+ * customer.datasource.replicas. The DataSource everyone else uses routes between them.
+ * Id blocks are taken on a small pool of their own connected to the primary database.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadReplicas readReplicas(DataSourceRoutingProperties properties, HikariDataSource primaryDataSource) {
+        List<HikariDataSource> dataSources = new ArrayList<>();
+        List<HikariConfig> replicas = properties.getReplicas();
+        for (int i = 0; i < replicas.size(); i++) {
+            HikariConfig config = replicas.get(i);
+            if (config.getPoolName() == null) {
+                config.setPoolName("replica-" + i);
+            }
+            // Connections of every pool come with the same autocommit setting as the primary's
+            config.setAutoCommit(primaryDataSource.isAutoCommit());
+            // A replica that is down at startup only means its reads go to the primary until it is back
+            config.setInitializationFailTimeout(-1);
+            dataSources.add(new HikariDataSource(config));
+        }
+        return new ReadReplicas(dataSources, properties.getHealthCheckIntervalMs());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReadReplicas readReplicas) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primaryDataSource, readReplicas));
+    }
+
+    @Bean
+    public IdBlockAllocator idBlockAllocator(DataSourceProperties properties, DataSourceRoutingProperties routingProperties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("idPool");
+        dataSource.setMaximumPoolSize(routingProperties.getIdPoolSize());
+        dataSource.setMinimumIdle(0);
+        dataSource.setAutoCommit(false);
+        return new IdBlockAllocator(dataSource);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer idBlockAllocatorCustomizer(IdBlockAllocator idBlockAllocator) {
+        return properties -> properties.put(IdBlockTableGenerator.ALLOCATOR, idBlockAllocator);
+    }
+
+    /**
+     * Pool meters of the replicas, the primary's are bound by Spring Boot as for any HikariDataSource bean.
+     */
+    @Bean
+    public MeterBinder readReplicasPoolMetrics(ReadReplicas readReplicas) {
+        return registry -> readReplicas.getReplicas()
+                .forEach(replica -> replica.getDataSource().setMetricRegistry(registry));
+    }
+
+    @Bean
+    public HealthIndicator readReplicasHealthIndicator(ReadReplicas readReplicas) {
+        return () -> {
+            Health.Builder health = Health.up();
+            for (ReadReplicas.Replica replica : readReplicas.getReplicas()) {
+                health.withDetail(replica.getName(), replica.isHealthy() ? "UP" : "DOWN");
+            }
+            return health.build();
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.customerService.config.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas, each bound like spring.datasource.hikari.* plus jdbc-url, username and password, e.g.
+ * customer.datasource.replicas[0].jdbc-url. Without replicas every connection comes from the primary.
+ */
+@Data
+@ConfigurationProperties(prefix = "customer.datasource")
+public class DataSourceRoutingProperties {
+
+    private List<HikariConfig> replicas = new ArrayList<>();
+
+    /**
+     * How often every replica is checked, a replica failing the check gets no reads until it passes again.
+     */
+    private long healthCheckIntervalMs = 5000;
+
+    /**
+     * How long a client's reads stay on the primary after it wrote, should cover the replication lag.
+     */
+    private long readYourWritesMs = 5000;
+
+    /**
+     * Connections of the pool that only takes id blocks, see IdBlockAllocator.
+     */
+    private int idPoolSize = 2;
+}
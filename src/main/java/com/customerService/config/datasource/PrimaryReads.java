@@ -0,0 +1,34 @@
+package com.customerService.config.datasource;
+
+/**
+ * Sends the read-only transactions of the current thread to the primary, for reads that must see
+ * the latest writes. Has to be set before the first statement of the transaction.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> REQUIRED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    /**
+     * Returns the previous setting, to be passed to restore once the reads are done.
+     */
+    public static boolean require() {
+        boolean previous = isRequired();
+        REQUIRED.set(Boolean.TRUE);
+        return previous;
+    }
+
+    public static void restore(boolean previous) {
+        if (previous) {
+            REQUIRED.set(Boolean.TRUE);
+        } else {
+            REQUIRED.remove();
+        }
+    }
+
+    public static boolean isRequired() {
+        return REQUIRED.get() != null;
+    }
+}
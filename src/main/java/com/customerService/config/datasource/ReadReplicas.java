@@ -0,0 +1,117 @@
+package com.customerService.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The replica pools with their health. Reads are spread round-robin over the healthy replicas,
+ * a replica is taken out when its health check or a connection attempt fails and put back
+ * when a later health check passes.
+ */
+@Slf4j
+public class ReadReplicas implements DisposableBean {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecks;
+
+    public ReadReplicas(List<HikariDataSource> dataSources, long healthCheckIntervalMs) {
+        List<Replica> list = new ArrayList<>();
+        for (HikariDataSource dataSource : dataSources) {
+            list.add(new Replica(dataSource));
+        }
+        this.replicas = Collections.unmodifiableList(list);
+        if (replicas.isEmpty()) {
+            healthChecks = null;
+            return;
+        }
+        checkHealth();
+        healthChecks = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecks.scheduleWithFixedDelay(this::checkHealth,
+                healthCheckIntervalMs, healthCheckIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The next healthy replica, null when there is none and reads have to fall back to the primary.
+     */
+    public Replica next() {
+        int size = replicas.size();
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), size));
+            if (replica.isHealthy()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.getDataSource().getConnection()) {
+                healthy = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException | RuntimeException e) {
+                healthy = false;
+            }
+            replica.setHealthy(healthy);
+        }
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void destroy() {
+        if (healthChecks != null) {
+            healthChecks.shutdownNow();
+        }
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+
+    public static class Replica {
+
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return dataSource.getPoolName();
+        }
+
+        public HikariDataSource getDataSource() {
+            return dataSource;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        void setHealthy(boolean healthy) {
+            if (this.healthy != healthy) {
+                log.info("Read replica {} is {}", getName(), healthy ? "up" : "down");
+            }
+            this.healthy = healthy;
+        }
+    }
+}
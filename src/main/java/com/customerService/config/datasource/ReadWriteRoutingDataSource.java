@@ -0,0 +1,50 @@
+package com.customerService.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to everything else.
+ * Reads fall back to the primary when no replica is healthy, when a replica refuses the connection,
+ * or when PrimaryReads is set for the thread.
+ * <p>
+ * The read-only flag is only known once the transaction has started, so this is wrapped in a
+ * LazyConnectionDataSourceProxy that asks for the connection at the first statement.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final ReadReplicas replicas;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReadReplicas replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !PrimaryReads.isRequired()) {
+            ReadReplicas.Replica replica = replicas.next();
+            if (replica != null) {
+                try {
+                    return replica.getDataSource().getConnection();
+                } catch (SQLException e) {
+                    log.warn("Read replica {} refused the connection, reading from the primary", replica.getName(), e);
+                    replica.setHealthy(false);
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+}
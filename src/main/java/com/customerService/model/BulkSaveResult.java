@@ -0,0 +1,25 @@
+package com.customerService.model;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@ApiModel(description = "Result of saving one Customer entry of a bulk request")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkSaveResult {
+    @ApiModelProperty(notes = "Position of the entry in the request list")
+    private int index;
+
+    @ApiModelProperty(notes = "201 when the entry was saved, 400 when it was rejected")
+    private int status;
+
+    @ApiModelProperty(notes = "The saved Customer entry, null when rejected")
+    private Customer customer;
+
+    @ApiModelProperty(notes = "Reason of the rejection, null when saved")
+    private String error;
+}
@@ -1,5 +1,6 @@
 package com.customerService.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
@@ -47,4 +48,8 @@ public class Customer {
     @ApiModelProperty(notes = "The customer address")
     @Valid
     private Address address;
+
+    @JsonIgnore
+    @ApiModelProperty(hidden = true)
+    private Long version;
 }
@@ -0,0 +1,27 @@
+package com.customerService.model;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@ApiModel(description = "Customer entries changed or deleted since a sync token")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerChanges {
+    @ApiModelProperty(notes = "Created or updated Customer entries, ordered by change time and id")
+    private List<Customer> changed;
+
+    @ApiModelProperty(notes = "Ids of deleted Customer entries")
+    private List<Long> deletedIds;
+
+    @ApiModelProperty(notes = "Token to pass as since in the next request")
+    private String nextToken;
+
+    @ApiModelProperty(notes = "True when more changes are waiting, request again right away with nextToken")
+    private boolean hasMore;
+}
@@ -0,0 +1,21 @@
+package com.customerService.model;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@ApiModel(description = "One page of Customer entries")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerPage {
+    @ApiModelProperty(notes = "Customer entries of this page ordered by id")
+    private List<Customer> customers;
+
+    @ApiModelProperty(notes = "Cursor to request the next page with, null when this is the last page")
+    private Long nextCursor;
+}
@@ -0,0 +1,25 @@
+package com.customerService.model;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@ApiModel(description = "Filters of a Customer search, empty filters are ignored")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSearchCriteria {
+    @ApiModelProperty(notes = "Exact country of the address")
+    private String country;
+
+    @ApiModelProperty(notes = "Exact city of the address")
+    private String city;
+
+    @ApiModelProperty(notes = "Exact postal code of the address")
+    private String postalCode;
+
+    @ApiModelProperty(notes = "Start of the last name")
+    private String lastName;
+}
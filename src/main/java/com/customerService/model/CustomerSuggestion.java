@@ -0,0 +1,25 @@
+package com.customerService.model;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@ApiModel(description = "Typeahead match of a Customer")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSuggestion {
+    @ApiModelProperty(notes = "The unique id of the Customer")
+    private Long id;
+
+    @ApiModelProperty(notes = "The unique email")
+    private String email;
+
+    @ApiModelProperty(notes = "The first name")
+    private String firstName;
+
+    @ApiModelProperty(notes = "The last name")
+    private String lastName;
+}
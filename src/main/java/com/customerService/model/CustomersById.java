@@ -0,0 +1,22 @@
+package com.customerService.model;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@ApiModel(description = "Customer entries looked up by a list of IDs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomersById {
+    @ApiModelProperty(notes = "Found Customer entries keyed by id, in the order the ids were requested")
+    private Map<Long, Customer> customers;
+
+    @ApiModelProperty(notes = "Requested ids that do not exist")
+    private List<Long> missingIds;
+}
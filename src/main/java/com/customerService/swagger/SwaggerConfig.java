@@ -1,18 +1,29 @@
 package com.customerService.swagger;
 
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
 import springfox.documentation.builders.ApiInfoBuilder;
 import springfox.documentation.builders.PathSelectors;
 import springfox.documentation.service.ApiInfo;
 import springfox.documentation.service.Tag;
 import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.spring.web.plugins.WebMvcRequestHandlerProvider;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Configuration
 @EnableWebMvc
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class SwaggerConfig implements WebMvcConfigurer {
 
     @Bean
@@ -26,6 +37,33 @@ public class SwaggerConfig implements WebMvcConfigurer {
         return appendTags(docket);
 
     }
+
+    /**
+     * Actuator registers its endpoints with a PathPatternParser based handler mapping,
+     * which springfox cannot read, so only the ant path matching mappings are documented.
+     */
+    @Bean
+    public static BeanPostProcessor springfoxHandlerProviderBeanPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof WebMvcRequestHandlerProvider) {
+                    Field field = ReflectionUtils.findField(bean.getClass(), "handlerMappings");
+                    ReflectionUtils.makeAccessible(field);
+                    @SuppressWarnings("unchecked")
+                    List<RequestMappingInfoHandlerMapping> mappings =
+                            (List<RequestMappingInfoHandlerMapping>) ReflectionUtils.getField(field, bean);
+                    List<RequestMappingInfoHandlerMapping> antPathMappings = mappings.stream()
+                            .filter(mapping -> mapping.getPatternParser() == null)
+                            .collect(Collectors.toList());
+                    mappings.clear();
+                    mappings.addAll(antPathMappings);
+                }
+                return bean;
+            }
+        };
+    }
+
     private Docket appendTags(Docket docket) {
         return docket.tags(
                 new Tag(DescriptionVariables.CUSTOMER,
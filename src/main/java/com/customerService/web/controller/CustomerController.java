@@ -1,8 +1,18 @@
 package com.customerService.web.controller;
 
+import com.customerService.business.metrics.CustomerMetrics;
+import com.customerService.business.service.AsyncCustomerService;
 import com.customerService.business.service.CustomerService;
+import com.customerService.model.BulkSaveResult;
 import com.customerService.model.Customer;
+import com.customerService.model.CustomerChanges;
+import com.customerService.model.CustomerPage;
+import com.customerService.model.CustomerSearchCriteria;
+import com.customerService.model.CustomerSuggestion;
+import com.customerService.model.CustomersById;
 import com.customerService.swagger.DescriptionVariables;
+import com.customerService.web.stream.CustomerChangeBroadcaster;
+import com.customerService.web.stream.CustomerExporter;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -11,31 +21,56 @@ import io.swagger.annotations.ApiResponses;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Api(tags = DescriptionVariables.CUSTOMER)
 @Slf4j
 @AllArgsConstructor
 @RequestMapping("api/v1/customer")
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class CustomerController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BULK_SIZE = 5000;
+    private static final int MAX_BULK_DELETE_SIZE = 1000;
+    private static final int MAX_LOOKUP_SIZE = 1000;
+    private static final int MAX_SUGGEST_SIZE = 50;
+
     @Autowired
     private CustomerService customerService;
+    @Autowired
+    private CustomerChangeBroadcaster changeBroadcaster;
+    @Autowired
+    private CustomerMetrics customerMetrics;
+    @Autowired
+    private AsyncCustomerService asyncCustomerService;
+    @Autowired
+    private CustomerExporter customerExporter;
 
     @GetMapping("/allCustomers")
     @ApiOperation(value = "Finds all Customer entries",
@@ -54,9 +89,127 @@ public class CustomerController {
         return new ResponseEntity<>(list, HttpStatus.OK);
     }
 
+    @GetMapping("/page")
+    @ApiOperation(value = "Finds one page of Customer entries",
+            notes = "Returns up to size Customer entries with id greater than the cursor, ordered by id. " +
+                    "Pass the returned nextCursor to get the following page.",
+            response = CustomerPage.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The request has succeeded"),
+            @ApiResponse(code = 400, message = "The server has Bad Request, cannot process due to an invalid request"),
+            @ApiResponse(code = 500, message = "Server error")})
+    public ResponseEntity<?> getCustomersPage(@ApiParam(value = "id of the last Customer entry of the previous page")
+                                              @RequestParam(value = "cursor", required = false) Long cursor,
+                                              @ApiParam(value = "maximum number of Customer entries, 1 to " + MAX_PAGE_SIZE)
+                                              @RequestParam(value = "size", defaultValue = "50") int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            log.warn("Invalid page size requested: {}", size);
+            return new ResponseEntity<>("Sorry, the page size must be between 1 and " + MAX_PAGE_SIZE + ".", HttpStatus.BAD_REQUEST);
+        }
+        CustomerPage page = customerService.getCustomersPage(cursor, size);
+        log.info("Page size: {}, next cursor: {}", page.getCustomers().size(), page.getNextCursor());
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/search")
+    @ApiOperation(value = "Searches Customer entries page by page",
+            notes = "Filters combine with and, empty filters are ignored. Results are ordered by id, " +
+                    "pass the returned nextCursor to get the following page.",
+            response = CustomerPage.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The request has succeeded"),
+            @ApiResponse(code = 400, message = "The server has Bad Request, cannot process due to an invalid request"),
+            @ApiResponse(code = 500, message = "Server error")})
+    public ResponseEntity<?> searchCustomers(@ApiParam(value = "exact country") @RequestParam(value = "country", required = false) String country,
+                                             @ApiParam(value = "exact city") @RequestParam(value = "city", required = false) String city,
+                                             @ApiParam(value = "exact postal code") @RequestParam(value = "postalCode", required = false) String postalCode,
+                                             @ApiParam(value = "start of the last name") @RequestParam(value = "lastName", required = false) String lastName,
+                                             @ApiParam(value = "id of the last Customer entry of the previous page")
+                                             @RequestParam(value = "cursor", required = false) Long cursor,
+                                             @ApiParam(value = "maximum number of Customer entries, 1 to " + MAX_PAGE_SIZE)
+                                             @RequestParam(value = "size", defaultValue = "50") int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            log.warn("Invalid page size requested: {}", size);
+            return new ResponseEntity<>("Sorry, the page size must be between 1 and " + MAX_PAGE_SIZE + ".", HttpStatus.BAD_REQUEST);
+        }
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria(country, city, postalCode, lastName);
+        CustomerPage page = customerService.searchCustomers(criteria, cursor, size);
+        log.info("Search page size: {}, next cursor: {}", page.getCustomers().size(), page.getNextCursor());
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/suggest")
+    @ApiOperation(value = "Suggests Customer entries for typeahead",
+            notes = "Returns Customer entries whose first name, last name or email starts with q, ignoring case",
+            response = CustomerSuggestion.class, responseContainer = "List")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The request has succeeded"),
+            @ApiResponse(code = 400, message = "The server has Bad Request, cannot process due to an invalid request"),
+            @ApiResponse(code = 500, message = "Server error")})
+    public ResponseEntity<?> suggestCustomers(@ApiParam(value = "start of a first name, last name or email", required = true)
+                                              @RequestParam("q") String q,
+                                              @ApiParam(value = "maximum number of suggestions, 1 to " + MAX_SUGGEST_SIZE)
+                                              @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (q.trim().isEmpty()) {
+            return new ResponseEntity<>("Sorry, the query must not be blank.", HttpStatus.BAD_REQUEST);
+        }
+        if (limit < 1 || limit > MAX_SUGGEST_SIZE) {
+            log.warn("Invalid suggestion limit requested: {}", limit);
+            return new ResponseEntity<>("Sorry, the limit must be between 1 and " + MAX_SUGGEST_SIZE + ".", HttpStatus.BAD_REQUEST);
+        }
+        return ResponseEntity.ok(customerService.suggestCustomers(q.trim(), limit));
+    }
+
+    @GetMapping("/changes")
+    @ApiOperation(value = "Finds Customer entries changed since a sync token",
+            notes = "Returns created, updated and deleted Customer entries after the token in change order. " +
+                    "Start without a token for a full sync, then pass nextToken; repeat while hasMore is true.",
+            response = CustomerChanges.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The request has succeeded"),
+            @ApiResponse(code = 400, message = "The server has Bad Request, cannot process due to an invalid request"),
+            @ApiResponse(code = 500, message = "Server error")})
+    public ResponseEntity<?> getChanges(@ApiParam(value = "nextToken of the previous response, empty for a full sync")
+                                        @RequestParam(value = "since", required = false) String since,
+                                        @ApiParam(value = "maximum number of entries, 1 to " + MAX_PAGE_SIZE)
+                                        @RequestParam(value = "size", defaultValue = "100") int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            log.warn("Invalid page size requested: {}", size);
+            return new ResponseEntity<>("Sorry, the page size must be between 1 and " + MAX_PAGE_SIZE + ".", HttpStatus.BAD_REQUEST);
+        }
+        CustomerChanges changes = customerService.getChangesSince(since, size);
+        log.info("{} changed and {} deleted Customer entries, next token: {}",
+                changes.getChanged().size(), changes.getDeletedIds().size(), changes.getNextToken());
+        return ResponseEntity.ok(changes);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ApiOperation(value = "Streams Customer changes as Server-Sent Events",
+            notes = "Sends created, updated and deleted events after each commit, the SSE id is the change sequence. " +
+                    "Reconnect with Last-Event-ID to resume; a reset event means the gap is too large, resync with /changes.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The request has succeeded"),
+            @ApiResponse(code = 500, message = "Server error")})
+    public SseEmitter streamChanges(@ApiParam(value = "id of the last received event")
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return changeBroadcaster.subscribe(lastEventId);
+    }
+
+    @GetMapping(value = "/export", produces = CustomerExporter.APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Exports all Customer entries",
+            notes = "Streams every Customer entry as newline-delimited JSON, one entry per line",
+            response = Customer.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The request has succeeded"),
+            @ApiResponse(code = 500, message = "Server error")})
+    public WebAsyncTask<Void> exportCustomers(HttpServletResponse response) {
+        return customerExporter.export(response);
+    }
+
     @GetMapping("/getById/{id}")
     @ApiOperation(value = "Find a Customer by ID",
-            notes = "Returns a single Customer entry based on the provided ID",
+            notes = "Returns a single Customer entry based on the provided ID with its version as ETag. " +
+                    "A matching If-None-Match returns 304 without a body.",
             response = Customer.class)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "The request has succeeded"),
@@ -69,13 +222,85 @@ public class CustomerController {
         if (customerOptional.isPresent()) {
             Customer customer = customerOptional.get();
             log.info("Found Customer with ID {}: {}", id, customer);
-            return ResponseEntity.status(HttpStatus.OK).body(customer);
+            return withETag(ResponseEntity.status(HttpStatus.OK), customer).body(customer);
         }
         log.warn("Customer not found with ID: {}", id);
         return ResponseEntity.status(HttpStatus.NOT_FOUND).header(
                 "Message", "Customer not found with ID: " + id).build();
     }
 
+    @GetMapping("/async/getById/{id}")
+    @ApiOperation(value = "Find a Customer by ID without holding a request thread",
+            notes = "Same as GET /getById, the lookup runs on the customer service executor " +
+                    "and the request thread is released while it waits for the database.",
+            response = Customer.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The request has succeeded"),
+            @ApiResponse(code = 404, message = "The server has not found anything matching the Request-URI"),
+            @ApiResponse(code = 503, message = "The lookup timed out or the executor is full"),
+            @ApiResponse(code = 500, message = "Server error")})
+    public CompletableFuture<ResponseEntity<Customer>> getCustomerByIdAsync(@ApiParam(value = "id of the Customer entry", required = true)
+                                                                          @PathVariable("id") Long id) {
+        return asyncCustomerService.findCustomerByIdAsync(id).thenApply(customerOptional -> {
+            if (customerOptional.isPresent()) {
+                Customer customer = customerOptional.get();
+                log.info("Found Customer with ID {}: {}", id, customer);
+                return withETag(ResponseEntity.status(HttpStatus.OK), customer).body(customer);
+            }
+            log.warn("Customer not found with ID: {}", id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).header(
+                    "Message", "Customer not found with ID: " + id).build();
+        });
+    }
+
+    @GetMapping("/async/byIds")
+    @ApiOperation(value = "Finds Customer entries by a list of IDs without holding a request thread",
+            notes = "Same as GET /byIds, the lookup runs on the customer service executor " +
+                    "and the request thread is released while it waits for the database.",
+            response = CustomersById.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The request has succeeded"),
+            @ApiResponse(code = 400, message = "The server has Bad Request, cannot process due to an invalid request"),
+            @ApiResponse(code = 503, message = "The lookup timed out or the executor is full"),
+            @ApiResponse(code = 500, message = "Server error")})
+    public CompletableFuture<ResponseEntity<?>> getCustomersByIdsAsync(@ApiParam(value = "comma separated ids of the Customer entries", required = true)
+                                                                       @RequestParam("ids") List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_LOOKUP_SIZE) {
+            log.warn("Invalid lookup size: {}", ids.size());
+            return CompletableFuture.completedFuture(new ResponseEntity<>(
+                    "Sorry, the list must contain between 1 and " + MAX_LOOKUP_SIZE + " ids.", HttpStatus.BAD_REQUEST));
+        }
+        return asyncCustomerService.findCustomersAsync(ids).thenApply(customersById -> {
+            log.info("Found {} Customer entries, {} ids missing", customersById.getCustomers().size(), customersById.getMissingIds().size());
+            return ResponseEntity.ok(customersById);
+        });
+    }
+
+    @GetMapping("/byIds")
+    @ApiOperation(value = "Finds Customer entries by a list of IDs",
+            notes = "Returns the found Customer entries keyed by id and the ids that do not exist",
+            response = CustomersById.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The request has succeeded"),
+            @ApiResponse(code = 400, message = "The server has Bad Request, cannot process due to an invalid request"),
+            @ApiResponse(code = 500, message = "Server error")})
+    public ResponseEntity<?> getCustomersByIds(@ApiParam(value = "comma separated ids of the Customer entries", required = true)
+                                               @RequestParam("ids") List<Long> ids) {
+        return findCustomersByIds(ids);
+    }
+
+    @PostMapping("/byIds")
+    @ApiOperation(value = "Finds Customer entries by a list of IDs",
+            notes = "Same as GET /byIds for id lists too long for a URL",
+            response = CustomersById.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The request has succeeded"),
+            @ApiResponse(code = 400, message = "The server has Bad Request, cannot process due to an invalid request"),
+            @ApiResponse(code = 500, message = "Server error")})
+    public ResponseEntity<?> postCustomersByIds(@RequestBody List<Long> ids) {
+        return findCustomersByIds(ids);
+    }
+
     @PostMapping("/save")
     @ApiOperation(value = "Saves Customer entry in database",
             notes = "Provide customer data to save.",
@@ -88,36 +313,83 @@ public class CustomerController {
         String email = customer.getEmail();
         if (customerService.isEmailExisting(email)) {
             log.info("The email " + email +" is already registered");
+            customerMetrics.duplicateEmail();
             return new ResponseEntity<>("Sorry, the email " + email + " is already registered.", HttpStatus.BAD_REQUEST);
         }
         Customer savedCustomer = customerService.saveCustomer(customer);
         log.info("Customer entry saved: {}", savedCustomer);
-        return new ResponseEntity<>(savedCustomer, HttpStatus.CREATED);
+        return withETag(ResponseEntity.status(HttpStatus.CREATED), savedCustomer).body(savedCustomer);
+    }
+
+    @PostMapping("/saveAll")
+    @ApiOperation(value = "Saves a list of Customer entries in database",
+            notes = "Every entry is validated on its own, the response holds one result per entry in request order.",
+            response = BulkSaveResult.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The request has succeeded, see the status of every entry"),
+            @ApiResponse(code = 400, message = "The server has Bad Request, cannot process due invalid request"),
+            @ApiResponse(code = 500, message = "Server error")})
+    public ResponseEntity<?> saveCustomers(@RequestBody List<Customer> customers) {
+        if (customers.isEmpty() || customers.size() > MAX_BULK_SIZE) {
+            log.warn("Invalid bulk size: {}", customers.size());
+            return new ResponseEntity<>("Sorry, the list must contain between 1 and " + MAX_BULK_SIZE + " customers.", HttpStatus.BAD_REQUEST);
+        }
+        List<BulkSaveResult> results = customerService.saveCustomers(customers);
+        log.info("Bulk save processed {} customer entries", results.size());
+        return ResponseEntity.ok(results);
     }
 
     @PutMapping("/edit/{id}")
     @ApiOperation(value = "Edits Customer entry by ID",
-            notes = "Provide an id to edit specific customer in the database",
+            notes = "Provide an id to edit specific customer in the database. " +
+                    "Send the ETag from getById as If-Match to reject the edit when the customer changed meanwhile.",
             response = Customer.class)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "The request has succeeded"),
             @ApiResponse(code = 400, message = "The server has Bad Request, cannot process due to an invalid request"),
+            @ApiResponse(code = 412, message = "The If-Match ETag does not match the current version"),
             @ApiResponse(code = 404, message = "The server has not found anything matching the Request-URI"),
             @ApiResponse(code = 500, message = "Server error")
     })
-    public ResponseEntity<?> editCustomerById(@PathVariable Long id, @RequestBody @Valid Customer updatedCustomer) {
-        if (!customerService.isCustomerPresent(id)) {
+    public ResponseEntity<?> editCustomerById(@PathVariable Long id, @RequestBody @Valid Customer updatedCustomer,
+                                              @ApiParam(value = "ETag of the Customer entry the edit is based on")
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!applyIfMatch(ifMatch, updatedCustomer)) {
+            return preconditionFailed(ifMatch);
+        }
+        Customer editedCustomer = customerService.editCustomerById(id, updatedCustomer);
+        if (editedCustomer == null) {
             log.warn("Sorry, the customer with id " + id + " does not exist.");
             return new ResponseEntity<>("Sorry, the customer id " + id + " does not exist.", HttpStatus.NOT_FOUND);
         }
-        String email = updatedCustomer.getEmail();
-        if (customerService.isEmailExisting(email)) {
-            log.info("Customer with email {} is already registered.", email);
-            return new ResponseEntity<>("Sorry, the email " + email + " is already registered.", HttpStatus.BAD_REQUEST);
-        }
-        Customer editedCustomer = customerService.editCustomerById(id, updatedCustomer);
         log.info("Customer with ID {} updated successfully.", id);
-        return ResponseEntity.ok(editedCustomer);
+        return withETag(ResponseEntity.ok(), editedCustomer).body(editedCustomer);
+    }
+
+    @PatchMapping("/edit/{id}")
+    @ApiOperation(value = "Partially edits Customer entry by ID",
+            notes = "Provide an id and only the fields to change, omitted fields keep their values",
+            response = Customer.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The request has succeeded"),
+            @ApiResponse(code = 400, message = "The server has Bad Request, cannot process due to an invalid request"),
+            @ApiResponse(code = 412, message = "The If-Match ETag does not match the current version"),
+            @ApiResponse(code = 404, message = "The server has not found anything matching the Request-URI"),
+            @ApiResponse(code = 500, message = "Server error")
+    })
+    public ResponseEntity<?> patchCustomerById(@PathVariable Long id, @RequestBody Customer patch,
+                                               @ApiParam(value = "ETag of the Customer entry the patch is based on")
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!applyIfMatch(ifMatch, patch)) {
+            return preconditionFailed(ifMatch);
+        }
+        Customer patchedCustomer = customerService.patchCustomerById(id, patch);
+        if (patchedCustomer == null) {
+            log.warn("Sorry, the customer with id " + id + " does not exist.");
+            return new ResponseEntity<>("Sorry, the customer id " + id + " does not exist.", HttpStatus.NOT_FOUND);
+        }
+        log.info("Customer with ID {} patched successfully.", id);
+        return withETag(ResponseEntity.ok(), patchedCustomer).body(patchedCustomer);
     }
 
     @DeleteMapping("/delete/{id}")
@@ -138,4 +410,67 @@ public class CustomerController {
         log.warn("Cannot delete Customer entry with ID: {}, customer not found", id);
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Customer not found with ID: " + id);
     }
+
+    @DeleteMapping("/deleteAll")
+    @ApiOperation(value = "Deletes Customer entries by a list of IDs",
+            notes = "Provide a list of ids to delete in one transaction, unknown ids are skipped",
+            response = String.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The request has succeeded"),
+            @ApiResponse(code = 400, message = "The server has Bad Request, cannot process due to an invalid request"),
+            @ApiResponse(code = 404, message = "The server has not found anything matching the Request-URI"),
+            @ApiResponse(code = 500, message = "Server error")
+    })
+    public ResponseEntity<String> deleteCustomers(@RequestBody List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BULK_DELETE_SIZE) {
+            log.warn("Invalid bulk delete size: {}", ids.size());
+            return new ResponseEntity<>("Sorry, the list must contain between 1 and " + MAX_BULK_DELETE_SIZE + " ids.", HttpStatus.BAD_REQUEST);
+        }
+        int deleted = customerService.deleteCustomersByIds(ids);
+        if (deleted == 0) {
+            log.warn("Cannot delete Customer entries with IDs: {}, customers not found", ids);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Customers not found with IDs: " + ids);
+        }
+        log.info("{} Customer entries deleted", deleted);
+        return ResponseEntity.ok(deleted + " Customer entries deleted");
+    }
+
+    private ResponseEntity<?> findCustomersByIds(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_LOOKUP_SIZE) {
+            log.warn("Invalid lookup size: {}", ids.size());
+            return new ResponseEntity<>("Sorry, the list must contain between 1 and " + MAX_LOOKUP_SIZE + " ids.", HttpStatus.BAD_REQUEST);
+        }
+        CustomersById customersById = customerService.findCustomersByIds(ids);
+        log.info("Found {} Customer entries, {} ids missing", customersById.getCustomers().size(), customersById.getMissingIds().size());
+        return ResponseEntity.ok(customersById);
+    }
+
+    /**
+     * The version of the customer becomes a strong ETag, so conditional GETs are answered by Spring with 304.
+     */
+    static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, Customer customer) {
+        return customer.getVersion() == null ? builder : builder.eTag(customer.getVersion().toString());
+    }
+
+    /**
+     * Puts the version of a strong If-Match ETag on the request model; "*" or no header means any version.
+     * Returns false for a weak, listed or unknown ETag, which can never match.
+     */
+    static boolean applyIfMatch(String ifMatch, Customer customer) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return true;
+        }
+        String eTag = ifMatch.trim();
+        if (!eTag.matches("\"\\d{1,18}\"")) {
+            return false;
+        }
+        customer.setVersion(Long.parseLong(eTag.substring(1, eTag.length() - 1)));
+        return true;
+    }
+
+    private ResponseEntity<String> preconditionFailed(String ifMatch) {
+        log.info("Unusable If-Match header: {}", ifMatch);
+        return new ResponseEntity<>("Sorry, the customer was changed by another request, reload it and try again.",
+                HttpStatus.PRECONDITION_FAILED);
+    }
 }
@@ -0,0 +1,124 @@
+package com.customerService.web.limit;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AIMD concurrency limit driven by observed latency. Completions are collected in sampling windows of one
+ * limit's worth of requests, and the limit changes at most once per window: it is multiplied by the backoff
+ * ratio when more than a tenth of the window was slow or failed, and grows by one when at least half of the
+ * limit was in use. A request is slow when it takes more than tolerance times the baseline, the fastest
+ * request of the last few windows, so the limit follows the latency the database normally has instead of
+ * a fixed number. When the database slows down the limit shrinks until admitted requests are fast again,
+ * and the rest are rejected up front instead of queueing for a connection.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    static final int MIN_WINDOW_SIZE = 10;
+    static final int BASELINE_WINDOWS = 10;
+    private static final double SLOW_SHARE = 0.1;
+    /**
+     * Keeps jitter of a millisecond or two from counting as slow when the baseline is well below that.
+     */
+    private static final long LATENCY_SLACK_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final Deque<Long> windowMinimums = new ArrayDeque<>();
+
+    private double limit;
+    private int inFlight;
+    private long baselineNanos = Long.MAX_VALUE;
+    private int windowSamples;
+    private int windowSlow;
+    private long windowMinNanos = Long.MAX_VALUE;
+    private boolean windowBusy;
+
+    public AdaptiveConcurrencyLimit(LimitProperties.Concurrency properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.tolerance = properties.getTolerance();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, properties.getInitialLimit()));
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Releases a permit and records the request latency as a sample.
+     */
+    public synchronized void release(long latencyNanos, boolean failed) {
+        inFlight--;
+        if (!failed) {
+            windowMinNanos = Math.min(windowMinNanos, latencyNanos);
+        }
+        record(failed || isSlow(latencyNanos));
+    }
+
+    /**
+     * Releases a permit of a request whose latency says nothing about the load, such as a full-table read.
+     * Only a failure is recorded.
+     */
+    public synchronized void releaseUnsampled(boolean failed) {
+        inFlight--;
+        if (failed) {
+            record(true);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private boolean isSlow(long latencyNanos) {
+        return baselineNanos != Long.MAX_VALUE && latencyNanos > baselineNanos * tolerance + LATENCY_SLACK_NANOS;
+    }
+
+    private void record(boolean slow) {
+        windowSamples++;
+        if (slow) {
+            windowSlow++;
+        }
+        if ((inFlight + 1) * 2 >= limit) {
+            windowBusy = true;
+        }
+        if (windowSamples >= Math.max(MIN_WINDOW_SIZE, (int) limit)) {
+            closeWindow();
+        }
+    }
+
+    private void closeWindow() {
+        if (windowSlow > windowSamples * SLOW_SHARE) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (windowBusy) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+        if (windowMinNanos != Long.MAX_VALUE) {
+            windowMinimums.addLast(windowMinNanos);
+            if (windowMinimums.size() > BASELINE_WINDOWS) {
+                windowMinimums.removeFirst();
+            }
+            baselineNanos = Long.MAX_VALUE;
+            for (long windowMinimum : windowMinimums) {
+                baselineNanos = Math.min(baselineNanos, windowMinimum);
+            }
+        }
+        windowSamples = 0;
+        windowSlow = 0;
+        windowMinNanos = Long.MAX_VALUE;
+        windowBusy = false;
+    }
+}
@@ -0,0 +1,173 @@
+package com.customerService.web.limit;
+
+import com.customerService.business.metrics.CustomerMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Admits customer API requests up to the adaptive concurrency limit of their class, reads or writes,
+ * and rejects the rest right away with 503 and Retry-After. The streaming endpoints hold their request
+ * for minutes, so they are not limited and do not feed the latency samples. Bulk and full-table endpoints
+ * are limited, but they are slow however idle the database is, so only their failures are sampled.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "customer.limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    static final String API_PATH = "/api/";
+    static final String READS = "reads";
+    static final String WRITES = "writes";
+    static final List<String> UNSAMPLED_PATHS = Arrays.asList("/allCustomers", "/page", "/search", "/saveAll", "/deleteAll");
+
+    private final AdaptiveConcurrencyLimit readLimit;
+    private final AdaptiveConcurrencyLimit writeLimit;
+    private final int retryAfterSeconds;
+    private final CustomerMetrics customerMetrics;
+
+    public ConcurrencyLimitFilter(LimitProperties properties, CustomerMetrics customerMetrics, MeterRegistry meterRegistry) {
+        this.readLimit = new AdaptiveConcurrencyLimit(properties.getReads());
+        this.writeLimit = new AdaptiveConcurrencyLimit(properties.getWrites());
+        this.retryAfterSeconds = properties.getRetryAfterSeconds();
+        this.customerMetrics = customerMetrics;
+        registerGauges(meterRegistry, READS, readLimit);
+        registerGauges(meterRegistry, WRITES, writeLimit);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return !path.startsWith(API_PATH) || path.endsWith("/stream") || path.endsWith("/export");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String requestClass = isRead(request) ? READS : WRITES;
+        AdaptiveConcurrencyLimit limit = READS.equals(requestClass) ? readLimit : writeLimit;
+        if (!limit.tryAcquire()) {
+            // Counted in customer.requests.rejected, a warning per shed request would flood the log under overload
+            log.debug("Rejected {} {}, {} limit of {} reached", request.getMethod(), request.getRequestURI(),
+                    requestClass, limit.getLimit());
+            customerMetrics.rejected(requestClass);
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("Sorry, the service is overloaded, try again later.");
+            return;
+        }
+        boolean sampled = isSampled(request);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && isAsyncStarted(request)) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(limit, sampled, start));
+            } else {
+                release(limit, sampled, start, failed || response.getStatus() >= 500);
+            }
+        }
+    }
+
+    private static boolean isSampled(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return UNSAMPLED_PATHS.stream().noneMatch(path::endsWith);
+    }
+
+    private static void release(AdaptiveConcurrencyLimit limit, boolean sampled, long start, boolean failed) {
+        if (sampled) {
+            limit.release(System.nanoTime() - start, failed);
+        } else {
+            limit.releaseUnsampled(failed);
+        }
+    }
+
+    /**
+     * POST /byIds only carries a long id list, it is a lookup like GET /byIds.
+     */
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method)
+                || (HttpMethod.POST.matches(method) && request.getServletPath().endsWith("/byIds"));
+    }
+
+    private static void registerGauges(MeterRegistry meterRegistry, String requestClass, AdaptiveConcurrencyLimit limit) {
+        Gauge.builder("customer.limit.concurrency", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("class", requestClass)
+                .register(meterRegistry);
+        Gauge.builder("customer.limit.in.flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Admitted requests in progress")
+                .tag("class", requestClass)
+                .register(meterRegistry);
+    }
+
+    /**
+     * An async request keeps its permit until the async processing completes.
+     */
+    private static final class ReleaseOnComplete implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimit limit;
+        private final boolean sampled;
+        private final long start;
+        private boolean released;
+
+        ReleaseOnComplete(AdaptiveConcurrencyLimit limit, boolean sampled, long start) {
+            this.limit = limit;
+            this.sampled = sampled;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            HttpServletResponse response = (HttpServletResponse) event.getSuppliedResponse();
+            release(response.getStatus() >= 500);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private synchronized void release(boolean failed) {
+            if (!released) {
+                released = true;
+                ConcurrencyLimitFilter.release(limit, sampled, start, failed);
+            }
+        }
+    }
+}
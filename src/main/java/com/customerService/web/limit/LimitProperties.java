@@ -0,0 +1,70 @@
+package com.customerService.web.limit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Load shedding in front of the customer API, e.g. customer.limit.reads.max-limit or
+ * customer.limit.rate-limit.enabled. Reads and writes have separate concurrency limits, so slow writes
+ * cannot starve cheap reads of their share.
+ */
+@Data
+@ConfigurationProperties(prefix = "customer.limit")
+public class LimitProperties {
+
+    private boolean enabled = true;
+
+    private Concurrency reads = new Concurrency(20, 2, 200, 2.0, 0.9);
+
+    private Concurrency writes = new Concurrency(10, 1, 100, 2.0, 0.9);
+
+    /**
+     * Retry-After sent with a 503 when a concurrency limit is reached.
+     */
+    private int retryAfterSeconds = 1;
+
+    private RateLimit rateLimit = new RateLimit();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Concurrency {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+        /**
+         * A request taking more than this many times the baseline latency counts as slow.
+         */
+        private double tolerance;
+        /**
+         * Factor the limit is multiplied with after a sampling window with too many slow or failed requests.
+         */
+        private double backoffRatio;
+    }
+
+    /**
+     * Token bucket per client: capacity is the allowed burst, refill-per-second the sustained rate.
+     */
+    @Data
+    public static class RateLimit {
+        private boolean enabled = false;
+        private long capacity = 100;
+        private double refillPerSecond = 50;
+        /**
+         * Header a trusted gateway sets to identify the client. It is ignored on requests from anyone else,
+         * a caller could otherwise pick a fresh value for a full bucket on every request.
+         */
+        private String clientHeader = "X-Client-Id";
+        /**
+         * Addresses of the proxies in front of the service. Only their client header and X-Forwarded-For
+         * are believed; without any, clients are told apart by principal or remote address.
+         */
+        private List<String> trustedProxies = new ArrayList<>();
+        private long maxClients = 100000;
+    }
+}
@@ -0,0 +1,120 @@
+package com.customerService.web.limit;
+
+import com.customerService.business.metrics.CustomerMetrics;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client token bucket rate limit on the customer API, answering 429 with Retry-After once a client's
+ * bucket is empty. Runs before the concurrency limit, so a single noisy client is turned away before
+ * it takes permits from everyone else. Idle clients' buckets are dropped, at most max-clients are kept.
+ * A client is the authenticated principal, else the client header or forwarded address set by a trusted
+ * proxy, else the remote address. Nothing the caller sends itself picks the bucket.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "customer.limit.rate-limit", name = "enabled", havingValue = "true")
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String RATE_LIMIT = "rate-limit";
+    static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private final LimitProperties.RateLimit properties;
+    private final CustomerMetrics customerMetrics;
+    private final Set<String> trustedProxies;
+    private final LoadingCache<String, TokenBucket> buckets;
+
+    public RateLimitFilter(LimitProperties limitProperties, CustomerMetrics customerMetrics) {
+        this.properties = limitProperties.getRateLimit();
+        this.customerMetrics = customerMetrics;
+        this.trustedProxies = new HashSet<>(properties.getTrustedProxies());
+        // A bucket idle this long has refilled completely, dropping it changes nothing
+        long fullRefillSeconds = (long) Math.ceil(properties.getCapacity() / properties.getRefillPerSecond());
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(Math.max(1, fullRefillSeconds), TimeUnit.SECONDS)
+                .build(client -> new TokenBucket(properties.getCapacity(), properties.getRefillPerSecond(), System.nanoTime()));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getServletPath().startsWith(ConcurrencyLimitFilter.API_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String client = client(request);
+        long waitNanos = buckets.get(client).tryConsume(System.nanoTime());
+        if (waitNanos > 0) {
+            log.debug("Rate limit reached for client {}", client);
+            customerMetrics.rejected(RATE_LIMIT);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1)));
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("Sorry, too many requests, try again later.");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private String client(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "user:" + principal.getName();
+        }
+        String remoteAddress = request.getRemoteAddr();
+        if (!trustedProxies.contains(remoteAddress)) {
+            return remoteAddress;
+        }
+        String clientId = request.getHeader(properties.getClientHeader());
+        if (clientId != null && !clientId.isEmpty()) {
+            return "client:" + clientId;
+        }
+        return forwardedAddress(request, remoteAddress);
+    }
+
+    /**
+     * The right-most X-Forwarded-For entry that is not one of our proxies. Entries left of it were written
+     * by the caller and prove nothing.
+     */
+    private String forwardedAddress(HttpServletRequest request, String remoteAddress) {
+        List<String> hops = new ArrayList<>();
+        Enumeration<String> headers = request.getHeaders(FORWARDED_FOR);
+        while (headers.hasMoreElements()) {
+            hops.addAll(Arrays.asList(headers.nextElement().split(",")));
+        }
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            String hop = hops.get(i).trim();
+            if (!hop.isEmpty() && !trustedProxies.contains(hop)) {
+                return hop;
+            }
+        }
+        return remoteAddress;
+    }
+}
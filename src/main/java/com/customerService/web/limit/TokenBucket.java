@@ -0,0 +1,32 @@
+package com.customerService.web.limit;
+
+/**
+ * Token bucket refilled continuously at a fixed rate up to its capacity; it starts full.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1e9;
+        this.tokens = capacity;
+        this.lastRefill = nowNanos;
+    }
+
+    /**
+     * Takes one token. Returns 0 when it was available, otherwise the nanoseconds until it will be.
+     */
+    public synchronized long tryConsume(long nowNanos) {
+        tokens = Math.min(capacity, tokens + (nowNanos - lastRefill) * tokensPerNano);
+        lastRefill = nowNanos;
+        if (tokens >= 1) {
+            tokens--;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+}
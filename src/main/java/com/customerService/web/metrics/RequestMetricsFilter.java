@@ -0,0 +1,52 @@
+package com.customerService.web.metrics;
+
+import com.customerService.business.metrics.CustomerMetrics;
+import com.customerService.business.metrics.StatementCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Records the Hibernate statement count of every request and counts 404 answers,
+ * both tagged with the matched request pattern. Async requests (export, stream) run their queries
+ * on another thread after this filter returns, so they are left out.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final String UNMATCHED_URI = "NOT_FOUND";
+
+    @Autowired
+    private CustomerMetrics customerMetrics;
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        statementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long statements = statementCounter.stop();
+            if (!isAsyncStarted(request)) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String uri = pattern != null ? pattern.toString() : UNMATCHED_URI;
+                customerMetrics.statements(uri, statements);
+                if (response.getStatus() == HttpStatus.NOT_FOUND.value()) {
+                    customerMetrics.notFound(uri);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.customerService.web.routing;
+
+import com.customerService.business.events.CustomerChangeEvent;
+import com.customerService.config.datasource.PrimaryReads;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Read-your-writes over replicas: a request that committed a customer write gets a short lived cookie,
+ * and requests carrying it read from the primary until it expires, so a client sees its own writes
+ * even while the replicas lag behind.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE_NAME = "primary-reads";
+    private static final String COOKIE_SET_ATTRIBUTE = ReadYourWritesFilter.class.getName() + ".COOKIE_SET";
+
+    private final int cookieMaxAgeSeconds;
+
+    public ReadYourWritesFilter(@Value("${customer.datasource.read-your-writes-ms:5000}") long readYourWritesMs) {
+        this.cookieMaxAgeSeconds = (int) Math.max(1, (readYourWritesMs + 999) / 1000);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!hasCookie(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        boolean previous = PrimaryReads.require();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            PrimaryReads.restore(previous);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCustomerChange(CustomerChangeEvent event) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        HttpServletResponse response = ((ServletRequestAttributes) attributes).getResponse();
+        if (response == null || response.isCommitted() || request.getAttribute(COOKIE_SET_ATTRIBUTE) != null) {
+            return;
+        }
+        request.setAttribute(COOKIE_SET_ATTRIBUTE, Boolean.TRUE);
+        Cookie cookie = new Cookie(COOKIE_NAME, "1");
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge(cookieMaxAgeSeconds);
+        response.addCookie(cookie);
+    }
+
+    private static boolean hasCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE_NAME.equals(cookie.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,244 @@
+package com.customerService.web.stream;
+
+import com.customerService.business.events.CustomerChangeEvent;
+import com.customerService.config.AsyncConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes committed customer changes to Server-Sent Events subscribers.
+ * <p>
+ * Every change gets a sequence number that is sent as the SSE id, and the last replay-size changes are
+ * kept so a reconnecting client resumes from its Last-Event-ID. If the id is no longer kept, the client
+ * first receives a reset event and should resync through /changes.
+ * <p>
+ * Each subscriber has a bounded buffer of pending changes keyed by customer id: a newer change of a
+ * customer replaces the pending one, and a subscriber whose buffer overflows is disconnected so it
+ * reconnects and resumes instead of slowing down everyone else. Sending runs on the change stream executor,
+ * one drain at a time per subscriber. A subscriber whose send has been blocked longer than the send timeout
+ * is dropped the next time a change is broadcast, as is one the executor has no room for.
+ */
+@Slf4j
+@Component
+public class CustomerChangeBroadcaster {
+
+    static final String RESET_EVENT = "reset";
+
+    @Autowired
+    @Qualifier(AsyncConfig.CHANGE_STREAM_EXECUTOR)
+    private TaskExecutor taskExecutor;
+    @Value("${customer.stream.replay-size:10000}")
+    private int replaySize;
+    @Value("${customer.stream.buffer-size:1000}")
+    private int bufferSize;
+    @Value("${customer.stream.timeout-ms:1800000}")
+    private long timeout;
+    @Value("${customer.stream.send-timeout-ms:10000}")
+    private long sendTimeout;
+
+    private final Deque<SequencedChange> replay = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    /**
+     * Starts from the clock, so ids keep growing across restarts and a client resuming with an id
+     * from before the restart gets a reset instead of silently missing changes.
+     */
+    private long lastSequence = System.currentTimeMillis() * 1000;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCustomerChange(CustomerChangeEvent event) {
+        SequencedChange change;
+        synchronized (replay) {
+            change = new SequencedChange(++lastSequence, event);
+            replay.addLast(change);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(change);
+            }
+        }
+        dropStalledSubscribers();
+        subscribers.forEach(this::scheduleDrain);
+    }
+
+    public SseEmitter subscribe(Long lastEventId) {
+        return subscribe(new SseEmitter(timeout), lastEventId);
+    }
+
+    /**
+     * Registers the emitter and queues every kept change after lastEventId, null means only new changes.
+     */
+    public SseEmitter subscribe(SseEmitter emitter, Long lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        synchronized (replay) {
+            if (lastEventId != null) {
+                long oldestKept = replay.isEmpty() ? lastSequence + 1 : replay.peekFirst().sequence;
+                if (lastEventId + 1 < oldestKept) {
+                    subscriber.reset = true;
+                }
+                for (SequencedChange change : replay) {
+                    if (change.sequence > lastEventId && !subscriber.offer(change)) {
+                        subscriber.resetToNow();
+                        break;
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        log.info("Change stream subscriber added after event {}, {} subscribers", lastEventId, subscribers.size());
+        scheduleDrain(subscriber);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                taskExecutor.execute(() -> drain(subscriber));
+            } catch (TaskRejectedException e) {
+                subscriber.draining.set(false);
+                disconnect(subscriber, new IOException("no change stream thread available", e));
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (subscribers.contains(subscriber) && (event = subscriber.poll()) != null) {
+                subscriber.sendStartedNanos = System.nanoTime();
+                subscriber.emitter.send(event);
+                subscriber.sendStartedNanos = 0;
+            }
+        } catch (IOException | IllegalStateException e) {
+            disconnect(subscriber, e);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        if (subscribers.contains(subscriber) && subscriber.hasPending()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    /**
+     * A blocked send cannot be interrupted, but completing the emitter ends the response, and the
+     * subscriber gets nothing more, so the thread is freed once the write returns or fails.
+     */
+    private void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStartedNanos;
+            if (started != 0 && now - started > TimeUnit.MILLISECONDS.toNanos(sendTimeout)) {
+                disconnect(subscriber, new IOException("send blocked for more than " + sendTimeout + " ms"));
+            }
+        }
+    }
+
+    private void disconnect(Subscriber subscriber, Exception reason) {
+        if (subscribers.remove(subscriber)) {
+            log.info("Change stream subscriber disconnected: {}", reason.getMessage());
+            subscriber.emitter.completeWithError(reason);
+        }
+    }
+
+    private static final class SequencedChange {
+        private final long sequence;
+        private final CustomerChangeEvent event;
+
+        private SequencedChange(long sequence, CustomerChangeEvent event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Map<Long, SequencedChange> pending = new LinkedHashMap<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long sendStartedNanos;
+        private boolean reset;
+        private boolean overflowed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Queues the change, replacing a pending change of the same customer. Returns false and marks the
+         * subscriber as overflowed once the buffer is full.
+         */
+        private synchronized boolean offer(SequencedChange change) {
+            if (overflowed) {
+                return false;
+            }
+            Long customerId = change.event.getCustomerId();
+            pending.remove(customerId);
+            if (pending.size() >= bufferSize) {
+                overflowed = true;
+                return false;
+            }
+            pending.put(customerId, change);
+            return true;
+        }
+
+        /**
+         * Used when the missed changes do not fit the buffer: the client only gets the reset event.
+         */
+        private synchronized void resetToNow() {
+            pending.clear();
+            overflowed = false;
+            reset = true;
+        }
+
+        private synchronized SseEmitter.SseEventBuilder poll() throws IOException {
+            if (reset) {
+                reset = false;
+                return SseEmitter.event().name(RESET_EVENT).data("resync");
+            }
+            if (overflowed) {
+                throw new IOException("buffer of " + bufferSize + " pending changes overflowed");
+            }
+            Iterator<SequencedChange> iterator = pending.values().iterator();
+            if (!iterator.hasNext()) {
+                return null;
+            }
+            SequencedChange change = iterator.next();
+            iterator.remove();
+            return SseEmitter.event()
+                    .id(Long.toString(change.sequence))
+                    .name(change.event.getType().name().toLowerCase(Locale.ROOT))
+                    .data(change.event);
+        }
+
+        private synchronized boolean hasPending() {
+            return reset || overflowed || !pending.isEmpty();
+        }
+    }
+}
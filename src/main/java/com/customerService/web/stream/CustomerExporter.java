@@ -0,0 +1,56 @@
+package com.customerService.web.stream;
+
+import com.customerService.business.service.CustomerService;
+import com.customerService.model.Customer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes every customer as newline-delimited JSON on the async request executor. A full export runs far
+ * longer than the other async endpoints may take, so it carries a timeout of its own,
+ * customer.export.timeout-ms, instead of the global customer.async.request-timeout-ms.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CustomerExporter {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Value("${customer.export.timeout-ms:3600000}")
+    private long timeout;
+
+    public WebAsyncTask<Void> export(HttpServletResponse response) {
+        return new WebAsyncTask<>(timeout, () -> {
+            response.setContentType(APPLICATION_NDJSON_VALUE);
+            OutputStream outputStream = response.getOutputStream();
+            long count = customerService.exportCustomers(customer -> writeLine(outputStream, customer));
+            outputStream.flush();
+            log.info("Customer export finished, entries written: {}", count);
+            return null;
+        });
+    }
+
+    private void writeLine(OutputStream outputStream, Customer customer) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(customer));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
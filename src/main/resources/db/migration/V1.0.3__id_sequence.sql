@@ -0,0 +1,10 @@
+CREATE TABLE id_sequence (
+  sequence_name VARCHAR(50) PRIMARY KEY NOT NULL,
+  next_val BIGINT NOT NULL
+);
+
+INSERT INTO id_sequence (sequence_name, next_val)
+SELECT 'address', COALESCE(MAX(id), 0) + 1 FROM address;
+
+INSERT INTO id_sequence (sequence_name, next_val)
+SELECT 'customer', COALESCE(MAX(id), 0) + 1 FROM customer;
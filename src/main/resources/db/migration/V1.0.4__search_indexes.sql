@@ -0,0 +1,7 @@
+CREATE INDEX idx_address_country_city ON address (country, city);
+
+CREATE INDEX idx_address_city ON address (city);
+
+CREATE INDEX idx_address_postal_code ON address (postal_code);
+
+CREATE INDEX idx_customer_last_name ON customer (last_name);
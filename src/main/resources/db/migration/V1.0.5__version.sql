@@ -0,0 +1,3 @@
+ALTER TABLE customer ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE address ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
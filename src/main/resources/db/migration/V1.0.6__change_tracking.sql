@@ -0,0 +1,12 @@
+ALTER TABLE customer ADD COLUMN updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3);
+
+ALTER TABLE address ADD COLUMN updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3);
+
+CREATE INDEX idx_customer_updated_at ON customer (updated_at, id);
+
+CREATE TABLE customer_tombstone (
+  customer_id BIGINT PRIMARY KEY NOT NULL,
+  deleted_at TIMESTAMP(3) NOT NULL
+);
+
+CREATE INDEX idx_customer_tombstone_deleted_at ON customer_tombstone (deleted_at, customer_id);
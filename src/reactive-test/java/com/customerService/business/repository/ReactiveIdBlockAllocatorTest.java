@@ -0,0 +1,79 @@
+package com.customerService.business.repository;
+
+import org.hibernate.id.IdentifierGenerationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Draws from a segment of its own, so the ids the other tests save with are not disturbed.
+ */
+@ActiveProfiles("reactive")
+@SpringBootTest(properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.r2dbc.url=r2dbc:h2:mem:///customerdb?options=MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;SCHEMA=customerdb",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password="})
+public class ReactiveIdBlockAllocatorTest {
+
+    private static final String SEGMENT = "allocator-test";
+
+    @Autowired
+    private ReactiveIdBlockAllocator idBlockAllocator;
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void addSegment() {
+        databaseClient.sql("insert into id_sequence (sequence_name, next_val) values (:segment, 1)")
+                .bind("segment", SEGMENT)
+                .fetch()
+                .rowsUpdated()
+                .block();
+    }
+
+    @AfterEach
+    void removeSegment() {
+        databaseClient.sql("delete from id_sequence where sequence_name = :segment")
+                .bind("segment", SEGMENT)
+                .fetch()
+                .rowsUpdated()
+                .block();
+    }
+
+    @Test
+    void testNext_ConcurrentCallers_ShareBlocks() {
+        List<Long> ids = Flux.range(0, 7)
+                .flatMap(i -> idBlockAllocator.next(SEGMENT, 3))
+                .sort()
+                .collectList()
+                .block();
+
+        assertEquals(7, ids.size());
+        assertEquals(1L, ids.get(0));
+        assertEquals(7L, ids.get(6));
+        Long nextVal = databaseClient.sql("select next_val from id_sequence where sequence_name = :segment")
+                .bind("segment", SEGMENT)
+                .map((row, metadata) -> row.get("next_val", Long.class))
+                .one()
+                .block();
+        assertEquals(10L, nextVal);
+    }
+
+    @Test
+    void testNext_UnknownSegment_Fails() {
+        StepVerifier.create(idBlockAllocator.next("no-such-segment", 3))
+                .expectError(IdentifierGenerationException.class)
+                .verify();
+    }
+}
@@ -0,0 +1,197 @@
+package com.customerService.web.controller;
+
+import com.customerService.business.exceptions.EmailAlreadyExistsException;
+import com.customerService.business.service.ReactiveCustomerService;
+import com.customerService.model.Address;
+import com.customerService.model.Customer;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the reactive profile against the in-memory H2 database the JDBC tests use, reached through r2dbc-h2.
+ */
+@ActiveProfiles("reactive")
+@SpringBootTest(properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.r2dbc.url=r2dbc:h2:mem:///customerdb?options=MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;SCHEMA=customerdb",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password="})
+@AutoConfigureWebTestClient
+public class ReactiveCustomerControllerTest {
+
+    private static final String URL = "/api/v1/customer";
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private ReactiveCustomerService customerService;
+
+    @Test
+    void testGetAllCustomers_StreamsSeededCustomers() {
+        webTestClient.get().uri(URL + "/allCustomers")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(1)
+                .jsonPath("$[0].email").isEqualTo("john.doe@example.com")
+                .jsonPath("$[0].address.city").isEqualTo("New York")
+                .jsonPath("$[0].password").isEqualTo("password123");
+    }
+
+    @Test
+    void testExport_WritesOneCustomerPerLine() {
+        Flux<Customer> export = webTestClient.get().uri(URL + "/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Customer.class)
+                .getResponseBody();
+        StepVerifier.create(export.take(2))
+                .expectNextMatches(customer -> customer.getEmail().equals("john.doe@example.com"))
+                .expectNextMatches(customer -> customer.getEmail().equals("jane.smith@example.com"))
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetById_ReturnsCustomerWithETag() {
+        webTestClient.get().uri(URL + "/getById/2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectBody()
+                .jsonPath("$.email").isEqualTo("jane.smith@example.com");
+    }
+
+    @Test
+    void testGetById_NotFound() {
+        webTestClient.get().uri(URL + "/getById/999999")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().valueEquals("Message", "Customer not found with ID: 999999");
+    }
+
+    @Test
+    void testGetByIds_ReturnsFoundAndMissing() {
+        webTestClient.get().uri(URL + "/byIds?ids=3,999999,1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.customers.3.email").isEqualTo("bob.johnson@example.com")
+                .jsonPath("$.customers.1.email").isEqualTo("john.doe@example.com")
+                .jsonPath("$.missingIds[0]").isEqualTo(999999);
+    }
+
+    @Test
+    void testSave_InvalidCustomer_ReturnsValidationErrors() {
+        Customer customer = customer("not-an-email");
+        webTestClient.post().uri(URL + "/save")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(customer)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Validation failed")
+                .jsonPath("$.path").value(containsString("Invalid email format"));
+    }
+
+    @Test
+    void testSave_DuplicateEmail_ReturnsBadRequest() {
+        webTestClient.post().uri(URL + "/save")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(customer("john.doe@example.com"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("Sorry, the email john.doe@example.com is already registered.");
+    }
+
+    @Test
+    void testSaveCustomer_DuplicateEmail_MappedFromUniqueConstraint() {
+        StepVerifier.create(customerService.saveCustomer(customer("jane.smith@example.com")))
+                .expectError(EmailAlreadyExistsException.class)
+                .verify();
+    }
+
+    @Test
+    void testSaveEditDelete() {
+        EntityExchangeResult<JsonNode> saved = webTestClient.post().uri(URL + "/save")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(customer("reactive@example.com"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody(JsonNode.class)
+                .returnResult();
+        long id = saved.getResponseBody().get("id").asLong();
+        try {
+            Customer edit = customer("reactive.edited@example.com");
+            webTestClient.put().uri(URL + "/edit/" + id)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .bodyValue(edit)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().valueEquals(HttpHeaders.ETAG, "\"2\"")
+                    .expectBody()
+                    .jsonPath("$.email").isEqualTo("reactive.edited@example.com");
+
+            webTestClient.put().uri(URL + "/edit/" + id)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .bodyValue(edit)
+                    .exchange()
+                    .expectStatus().isEqualTo(412);
+
+            webTestClient.get().uri(URL + "/getById/" + id)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.email").isEqualTo("reactive.edited@example.com")
+                    .jsonPath("$.address.city").isEqualTo("Riga");
+
+            webTestClient.delete().uri(URL + "/delete/" + id)
+                    .exchange()
+                    .expectStatus().isOk();
+            webTestClient.delete().uri(URL + "/delete/" + id)
+                    .exchange()
+                    .expectStatus().isNotFound();
+        } finally {
+            customerService.deleteCustomerById(id).block();
+        }
+    }
+
+    @Test
+    void testEdit_UnknownId_ReturnsNotFound() {
+        webTestClient.put().uri(URL + "/edit/999999")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(customer("unknown@example.com"))
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class)
+                .isEqualTo("Sorry, the customer id 999999 does not exist.");
+    }
+
+    @Test
+    void testDelete_UnknownId_ReturnsNotFound() {
+        assertEquals(Boolean.FALSE, customerService.deleteCustomerById(999999L).block());
+    }
+
+    private static Customer customer(String email) {
+        return new Customer(null, email, "password", "Reactive", "Customer",
+                new Address(null, "12345678", "Latvia", "Riga", "LV-1001"), null);
+    }
+}
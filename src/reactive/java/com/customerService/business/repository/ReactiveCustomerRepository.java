@@ -0,0 +1,172 @@
+package com.customerService.business.repository;
+
+import com.customerService.business.repository.model.AddressDAO;
+import com.customerService.business.repository.model.CustomerDAO;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * R2DBC access to the customer and address tables for the reactive profile. Rows are read into the
+ * JPA model classes, used here as plain objects, so the existing mappers turn them into API models.
+ * Writes have to run inside a reactive transaction, see ReactiveCustomerServiceImpl.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCustomerRepository {
+
+    private static final String SELECT_CUSTOMER = "select c.id, c.email, c.password, c.first_name, c.last_name, " +
+            "c.version, a.id as address_id, a.phone_number, a.country, a.city, a.postal_code, " +
+            "a.version as address_version from customer c join address a on a.id = c.address_id ";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * Rows are fetched as the subscriber requests them, so a slow client holds back the query
+     * instead of the whole table being buffered.
+     */
+    public Flux<CustomerDAO> findAll() {
+        return databaseClient.sql(SELECT_CUSTOMER + "order by c.id")
+                .map((row, metadata) -> toCustomerDAO(row))
+                .all();
+    }
+
+    public Mono<CustomerDAO> findById(Long id) {
+        return databaseClient.sql(SELECT_CUSTOMER + "where c.id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> toCustomerDAO(row))
+                .one();
+    }
+
+    public Flux<CustomerDAO> findAllById(Collection<Long> ids) {
+        return databaseClient.sql(SELECT_CUSTOMER + "where c.id in (:ids) order by c.id")
+                .bind("ids", ids)
+                .map((row, metadata) -> toCustomerDAO(row))
+                .all();
+    }
+
+    public Mono<Boolean> existsByEmail(String email) {
+        return databaseClient.sql("select count(*) as matches from customer where email = :email")
+                .bind("email", email)
+                .map((row, metadata) -> row.get("matches", Long.class) > 0)
+                .one();
+    }
+
+    /**
+     * Inserts the address and the customer with ids already set, version and updated_at take
+     * their column defaults.
+     */
+    public Mono<Void> insert(CustomerDAO customerDAO) {
+        AddressDAO addressDAO = customerDAO.getAddressDAO();
+        Mono<Integer> insertAddress = databaseClient.sql("insert into address " +
+                        "(id, phone_number, country, city, postal_code) " +
+                        "values (:id, :phoneNumber, :country, :city, :postalCode)")
+                .bind("id", addressDAO.getId())
+                .bind("phoneNumber", addressDAO.getPhoneNumber())
+                .bind("country", addressDAO.getCountry())
+                .bind("city", addressDAO.getCity())
+                .bind("postalCode", addressDAO.getPostalCode())
+                .fetch()
+                .rowsUpdated();
+        Mono<Integer> insertCustomer = databaseClient.sql("insert into customer " +
+                        "(id, email, password, first_name, last_name, address_id) " +
+                        "values (:id, :email, :password, :firstName, :lastName, :addressId)")
+                .bind("id", customerDAO.getId())
+                .bind("email", customerDAO.getEmail())
+                .bind("password", customerDAO.getPassword())
+                .bind("firstName", customerDAO.getFirstName())
+                .bind("lastName", customerDAO.getLastName())
+                .bind("addressId", addressDAO.getId())
+                .fetch()
+                .rowsUpdated();
+        return insertAddress.then(insertCustomer).then();
+    }
+
+    /**
+     * Updates the customer row if it is still at the given version and returns the updated row count,
+     * zero means a concurrent write got there first.
+     */
+    public Mono<Integer> updateCustomer(CustomerDAO customerDAO) {
+        return databaseClient.sql("update customer set email = :email, password = :password, " +
+                        "first_name = :firstName, last_name = :lastName, version = version + 1, " +
+                        "updated_at = current_timestamp(3) where id = :id and version = :version")
+                .bind("email", customerDAO.getEmail())
+                .bind("password", customerDAO.getPassword())
+                .bind("firstName", customerDAO.getFirstName())
+                .bind("lastName", customerDAO.getLastName())
+                .bind("id", customerDAO.getId())
+                .bind("version", customerDAO.getVersion())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Same as updateCustomer for the address row.
+     */
+    public Mono<Integer> updateAddress(AddressDAO addressDAO) {
+        return databaseClient.sql("update address set phone_number = :phoneNumber, country = :country, " +
+                        "city = :city, postal_code = :postalCode, version = version + 1, " +
+                        "updated_at = current_timestamp(3) where id = :id and version = :version")
+                .bind("phoneNumber", addressDAO.getPhoneNumber())
+                .bind("country", addressDAO.getCountry())
+                .bind("city", addressDAO.getCity())
+                .bind("postalCode", addressDAO.getPostalCode())
+                .bind("id", addressDAO.getId())
+                .bind("version", addressDAO.getVersion())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Records the tombstone, then removes the customer and its address. Returns the deleted customer
+     * row count, zero when the id does not exist.
+     */
+    public Mono<Integer> deleteById(Long id) {
+        return databaseClient.sql("select address_id from customer where id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> row.get("address_id", Long.class))
+                .one()
+                .flatMap(addressId -> databaseClient.sql("insert into customer_tombstone (customer_id, deleted_at) " +
+                                "select id, current_timestamp(3) from customer where id = :id")
+                        .bind("id", id)
+                        .fetch()
+                        .rowsUpdated()
+                        .then(databaseClient.sql("delete from customer where id = :id")
+                                .bind("id", id)
+                                .fetch()
+                                .rowsUpdated())
+                        .flatMap(deleted -> databaseClient.sql("delete from address where id = :addressId")
+                                .bind("addressId", addressId)
+                                .fetch()
+                                .rowsUpdated()
+                                .thenReturn(deleted)))
+                .defaultIfEmpty(0);
+    }
+
+    private static CustomerDAO toCustomerDAO(Row row) {
+        AddressDAO addressDAO = new AddressDAO(
+                row.get("address_id", Long.class),
+                row.get("phone_number", String.class),
+                row.get("country", String.class),
+                row.get("city", String.class),
+                row.get("postal_code", String.class),
+                row.get("address_version", Long.class),
+                null);
+        return new CustomerDAO(
+                row.get("id", Long.class),
+                row.get("email", String.class),
+                row.get("password", String.class),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                addressDAO,
+                row.get("version", Long.class),
+                null);
+    }
+}
@@ -0,0 +1,90 @@
+package com.customerService.business.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.id.IdentifierGenerationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reactive counterpart of IdBlockAllocator: hands out ids from blocks of the id_sequence table, in the same
+ * pooled-lo layout the servlet side uses, so both draw from the segments without overlapping.
+ * <p>
+ * A block is taken in a short transaction of its own, which locks the id_sequence row for the select and
+ * update of next_val only. Callers take their ids before starting the transaction that writes with them,
+ * so a save never holds the row lock. Callers arriving while a block is being taken wait for that block
+ * instead of taking one each.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveIdBlockAllocator {
+
+    private final ConcurrentMap<String, Block> blocks = new ConcurrentHashMap<>();
+
+    @Autowired
+    private DatabaseClient databaseClient;
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    /**
+     * Next id of the segment, a new block of blockSize ids is taken when the current one is used up.
+     */
+    public Mono<Long> next(String segment, int blockSize) {
+        Block block = blocks.computeIfAbsent(segment, key -> new Block());
+        return Mono.defer(() -> {
+            Mono<Void> refill;
+            synchronized (block) {
+                if (block.next < block.end) {
+                    return Mono.just(block.next++);
+                }
+                if (block.refill == null) {
+                    block.refill = takeBlock(segment, blockSize)
+                            .doOnNext(start -> {
+                                synchronized (block) {
+                                    block.next = start;
+                                    block.end = start + blockSize;
+                                }
+                            })
+                            .doFinally(signal -> {
+                                synchronized (block) {
+                                    block.refill = null;
+                                }
+                            })
+                            .then()
+                            .cache();
+                }
+                refill = block.refill;
+            }
+            return refill.then(next(segment, blockSize));
+        });
+    }
+
+    private Mono<Long> takeBlock(String segment, int blockSize) {
+        Mono<Long> take = databaseClient.sql("select next_val from id_sequence where sequence_name = :segment for update")
+                .bind("segment", segment)
+                .map((row, metadata) -> row.get("next_val", Long.class))
+                .one()
+                .switchIfEmpty(Mono.error(() -> new IdentifierGenerationException("No id_sequence row for segment " + segment)))
+                .flatMap(start -> databaseClient.sql("update id_sequence set next_val = :nextVal where sequence_name = :segment")
+                        .bind("nextVal", start + blockSize)
+                        .bind("segment", segment)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(start))
+                .doOnNext(start -> log.debug("Took ids {} to {} of segment {}", start, start + blockSize - 1, segment));
+        return transactionalOperator.transactional(take);
+    }
+
+    private static final class Block {
+        private long next;
+        private long end;
+        private Mono<Void> refill;
+    }
+}
@@ -0,0 +1,24 @@
+package com.customerService.business.service;
+
+import com.customerService.model.Customer;
+import com.customerService.model.CustomersById;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface ReactiveCustomerService {
+    Flux<Customer> getAllCustomers();
+
+    Mono<Customer> findCustomerById(Long id);
+
+    Mono<CustomersById> findCustomersByIds(Collection<Long> ids);
+
+    Mono<Customer> saveCustomer(Customer customer);
+
+    Mono<Customer> editCustomerById(Long id, Customer updatedCustomer);
+
+    Mono<Boolean> deleteCustomerById(Long id);
+
+    Mono<Boolean> isEmailExisting(String email);
+}
@@ -0,0 +1,168 @@
+package com.customerService.business.service.impl;
+
+import com.customerService.business.exceptions.EmailAlreadyExistsException;
+import com.customerService.business.mappers.CustomerMapper;
+import com.customerService.business.repository.CustomerConstraints;
+import com.customerService.business.repository.ReactiveCustomerRepository;
+import com.customerService.business.repository.ReactiveIdBlockAllocator;
+import com.customerService.business.repository.model.CustomerDAO;
+import com.customerService.business.service.ReactiveCustomerService;
+import com.customerService.model.Customer;
+import com.customerService.model.CustomersById;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Non-blocking counterpart of CustomerServiceImpl for the reactive profile. Reads run without a
+ * transaction, every write runs in one reactive transaction.
+ */
+@Service
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCustomerServiceImpl implements ReactiveCustomerService {
+    // Same block size as the id generators of CustomerDAO and AddressDAO
+    private static final int ID_BLOCK_SIZE = 50;
+
+    @Autowired
+    private ReactiveCustomerRepository customerRepository;
+    @Autowired
+    private CustomerMapper customerMapper;
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+    @Autowired
+    private ReactiveIdBlockAllocator idBlockAllocator;
+
+    @Override
+    public Flux<Customer> getAllCustomers() {
+        return customerRepository.findAll().map(customerMapper::daoToCustomer);
+    }
+
+    @Override
+    public Mono<Customer> findCustomerById(Long id) {
+        return customerRepository.findById(id).map(customerMapper::daoToCustomer);
+    }
+
+    /**
+     * All ids are read with one join query, duplicates in the request are looked up once.
+     */
+    @Override
+    public Mono<CustomersById> findCustomersByIds(Collection<Long> ids) {
+        Set<Long> requestedIds = new LinkedHashSet<>(ids);
+        return customerRepository.findAllById(requestedIds)
+                .collectMap(CustomerDAO::getId, customerMapper::daoToCustomer)
+                .map(foundCustomers -> {
+                    Map<Long, Customer> customers = new LinkedHashMap<>();
+                    List<Long> missingIds = new ArrayList<>();
+                    for (Long id : requestedIds) {
+                        Customer customer = foundCustomers.get(id);
+                        if (customer != null) {
+                            customers.put(id, customer);
+                        } else {
+                            missingIds.add(id);
+                        }
+                    }
+                    log.info("Found {} of {} requested customers, missing ids: {}", customers.size(), requestedIds.size(), missingIds);
+                    return new CustomersById(customers, missingIds);
+                });
+    }
+
+    /**
+     * A duplicate email surfaces as EmailAlreadyExistsException from the unique constraint on customer.email,
+     * other constraint failures are passed on as they are.
+     */
+    @Override
+    public Mono<Customer> saveCustomer(Customer customer) {
+        CustomerDAO newCustomerDAO = customerMapper.customerToDAO(customer);
+        Mono<Customer> save = Mono.defer(() -> customerRepository.insert(newCustomerDAO))
+                .then(Mono.fromSupplier(() -> {
+                    newCustomerDAO.setVersion(0L);
+                    newCustomerDAO.getAddressDAO().setVersion(0L);
+                    log.info("Customer with ID {} is saved successfully.", newCustomerDAO.getId());
+                    return customerMapper.daoToCustomer(newCustomerDAO);
+                }));
+        // Ids are taken before the insert transaction starts, it does not hold the id_sequence row lock
+        return idBlockAllocator.next("address", ID_BLOCK_SIZE)
+                .zipWith(idBlockAllocator.next("customer", ID_BLOCK_SIZE))
+                .flatMap(ids -> {
+                    newCustomerDAO.getAddressDAO().setId(ids.getT1());
+                    newCustomerDAO.setId(ids.getT2());
+                    return transactionalOperator.transactional(save);
+                })
+                .onErrorMap(ReactiveCustomerServiceImpl::isUniqueEmailViolation,
+                        e -> new EmailAlreadyExistsException(newCustomerDAO.getEmail(), e));
+    }
+
+    /**
+     * Both rows are updated only if they are still at the versions just read, so a write racing in between
+     * fails with OptimisticLockingFailureException. Empty when the customer does not exist.
+     */
+    @Override
+    public Mono<Customer> editCustomerById(Long id, Customer updatedCustomer) {
+        Mono<Customer> edit = customerRepository.findById(id)
+                .flatMap(existingCustomerDAO -> {
+                    checkVersion(existingCustomerDAO, updatedCustomer.getVersion());
+                    customerMapper.updateCustomerDAO(updatedCustomer, existingCustomerDAO);
+                    return customerRepository.updateCustomer(existingCustomerDAO)
+                            .zipWith(customerRepository.updateAddress(existingCustomerDAO.getAddressDAO()))
+                            .map(updated -> {
+                                if (updated.getT1() != 1 || updated.getT2() != 1) {
+                                    throw new OptimisticLockingFailureException("Customer " + id + " was changed");
+                                }
+                                existingCustomerDAO.setVersion(existingCustomerDAO.getVersion() + 1);
+                                existingCustomerDAO.getAddressDAO().setVersion(existingCustomerDAO.getAddressDAO().getVersion() + 1);
+                                Customer editedCustomer = customerMapper.daoToCustomer(existingCustomerDAO);
+                                log.info("Updated customer details: {}", editedCustomer);
+                                return editedCustomer;
+                            });
+                });
+        return transactionalOperator.transactional(edit)
+                .onErrorMap(ReactiveCustomerServiceImpl::isUniqueEmailViolation,
+                        e -> new EmailAlreadyExistsException(updatedCustomer.getEmail(), e));
+    }
+
+    @Override
+    public Mono<Boolean> deleteCustomerById(Long id) {
+        return transactionalOperator.transactional(customerRepository.deleteById(id))
+                .map(deleted -> {
+                    if (deleted == 1) {
+                        log.info("Customer entry with id: {} is deleted", id);
+                        return true;
+                    }
+                    log.warn("Customer entry with id: {} does not exist, could not delete", id);
+                    return false;
+                });
+    }
+
+    @Override
+    public Mono<Boolean> isEmailExisting(String email) {
+        return customerRepository.existsByEmail(email);
+    }
+
+    private void checkVersion(CustomerDAO customerDAO, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(customerDAO.getAggregateVersion())) {
+            log.info("Customer with ID {} is at version {}, the request expected {}",
+                    customerDAO.getId(), customerDAO.getAggregateVersion(), expectedVersion);
+            throw new OptimisticLockingFailureException("Customer " + customerDAO.getId() + " was changed");
+        }
+    }
+
+    private static boolean isUniqueEmailViolation(Throwable e) {
+        return e instanceof DataIntegrityViolationException
+                && CustomerConstraints.isUniqueEmailViolation((DataIntegrityViolationException) e);
+    }
+}
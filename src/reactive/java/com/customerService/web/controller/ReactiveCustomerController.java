@@ -0,0 +1,219 @@
+package com.customerService.web.controller;
+
+import com.customerService.business.metrics.CustomerMetrics;
+import com.customerService.business.service.ReactiveCustomerService;
+import com.customerService.model.Customer;
+import com.customerService.model.CustomersById;
+import com.customerService.swagger.DescriptionVariables;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.util.List;
+
+/**
+ * WebFlux variant of CustomerController, active with the reactive profile. It serves the read, save, edit
+ * and delete routes with the same paths, status codes and bodies; handlers return without blocking,
+ * so a few event loop threads hold any number of waiting connections.
+ */
+@Api(tags = DescriptionVariables.CUSTOMER)
+@Slf4j
+@RequestMapping("api/v1/customer")
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCustomerController {
+
+    private static final int MAX_LOOKUP_SIZE = 1000;
+    /**
+     * Rows requested from the database ahead of what the client has consumed.
+     */
+    private static final int STREAM_PREFETCH = 256;
+
+    @Autowired
+    private ReactiveCustomerService customerService;
+    @Autowired
+    private CustomerMetrics customerMetrics;
+
+    @GetMapping("/allCustomers")
+    @ApiOperation(value = "Finds all Customer entries",
+            notes = "Returns all Customer entries from the database",
+            response = Customer.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The request has succeeded"),
+            @ApiResponse(code = 500, message = "Server error")})
+    public Flux<Customer> getAllCustomerEntries() {
+        return customerService.getAllCustomers().limitRate(STREAM_PREFETCH);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Exports all Customer entries",
+            notes = "Streams every Customer entry as newline-delimited JSON, one entry per line",
+            response = Customer.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The request has succeeded"),
+            @ApiResponse(code = 500, message = "Server error")})
+    public Flux<Customer> exportCustomers() {
+        return customerService.getAllCustomers()
+                .limitRate(STREAM_PREFETCH)
+                .doOnComplete(() -> log.info("Customer export finished"));
+    }
+
+    @GetMapping("/getById/{id}")
+    @ApiOperation(value = "Find a Customer by ID",
+            notes = "Returns a single Customer entry based on the provided ID with its version as ETag. " +
+                    "A matching If-None-Match returns 304 without a body.",
+            response = Customer.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The request has succeeded"),
+            @ApiResponse(code = 404, message = "The server has not found anything matching the Request-URI"),
+            @ApiResponse(code = 500, message = "Server error")})
+    public Mono<ResponseEntity<Customer>> getCustomerById(@ApiParam(value = "id of the Customer entry", required = true)
+                                                          @PathVariable("id") Long id) {
+        return customerService.findCustomerById(id)
+                .map(customer -> {
+                    log.info("Found Customer with ID {}: {}", id, customer);
+                    return CustomerController.withETag(ResponseEntity.status(HttpStatus.OK), customer).body(customer);
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.warn("Customer not found with ID: {}", id);
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).header(
+                            "Message", "Customer not found with ID: " + id).build();
+                }));
+    }
+
+    @GetMapping("/byIds")
+    @ApiOperation(value = "Finds Customer entries by a list of IDs",
+            notes = "Returns the found Customer entries keyed by id and the ids that do not exist",
+            response = CustomersById.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The request has succeeded"),
+            @ApiResponse(code = 400, message = "The server has Bad Request, cannot process due to an invalid request"),
+            @ApiResponse(code = 500, message = "Server error")})
+    public Mono<ResponseEntity<?>> getCustomersByIds(@ApiParam(value = "comma separated ids of the Customer entries", required = true)
+                                                     @RequestParam("ids") List<Long> ids) {
+        return findCustomersByIds(ids);
+    }
+
+    @PostMapping("/byIds")
+    @ApiOperation(value = "Finds Customer entries by a list of IDs",
+            notes = "Same as GET /byIds for id lists too long for a URL",
+            response = CustomersById.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The request has succeeded"),
+            @ApiResponse(code = 400, message = "The server has Bad Request, cannot process due to an invalid request"),
+            @ApiResponse(code = 500, message = "Server error")})
+    public Mono<ResponseEntity<?>> postCustomersByIds(@RequestBody List<Long> ids) {
+        return findCustomersByIds(ids);
+    }
+
+    @PostMapping("/save")
+    @ApiOperation(value = "Saves Customer entry in database",
+            notes = "Provide customer data to save.",
+            response = Customer.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "The request has create successfully"),
+            @ApiResponse(code = 400, message = "The server has Bad Request, cannot process due invalid request"),
+            @ApiResponse(code = 500, message = "Server error")})
+    public Mono<ResponseEntity<?>> saveCustomer(@RequestBody @Valid Customer customer) {
+        String email = customer.getEmail();
+        return customerService.isEmailExisting(email)
+                .flatMap(emailExists -> {
+                    if (emailExists) {
+                        log.info("The email " + email + " is already registered");
+                        customerMetrics.duplicateEmail();
+                        return Mono.just(new ResponseEntity<>("Sorry, the email " + email + " is already registered.", HttpStatus.BAD_REQUEST));
+                    }
+                    return customerService.saveCustomer(customer)
+                            .map(savedCustomer -> {
+                                log.info("Customer entry saved: {}", savedCustomer);
+                                return CustomerController.withETag(ResponseEntity.status(HttpStatus.CREATED), savedCustomer).body(savedCustomer);
+                            });
+                });
+    }
+
+    @PutMapping("/edit/{id}")
+    @ApiOperation(value = "Edits Customer entry by ID",
+            notes = "Provide an id to edit specific customer in the database. " +
+                    "Send the ETag from getById as If-Match to reject the edit when the customer changed meanwhile.",
+            response = Customer.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The request has succeeded"),
+            @ApiResponse(code = 400, message = "The server has Bad Request, cannot process due to an invalid request"),
+            @ApiResponse(code = 412, message = "The If-Match ETag does not match the current version"),
+            @ApiResponse(code = 404, message = "The server has not found anything matching the Request-URI"),
+            @ApiResponse(code = 500, message = "Server error")
+    })
+    public Mono<ResponseEntity<?>> editCustomerById(@PathVariable Long id, @RequestBody @Valid Customer updatedCustomer,
+                                                    @ApiParam(value = "ETag of the Customer entry the edit is based on")
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!CustomerController.applyIfMatch(ifMatch, updatedCustomer)) {
+            log.info("Unusable If-Match header: {}", ifMatch);
+            return Mono.just(new ResponseEntity<>("Sorry, the customer was changed by another request, reload it and try again.",
+                    HttpStatus.PRECONDITION_FAILED));
+        }
+        return customerService.editCustomerById(id, updatedCustomer)
+                .<ResponseEntity<?>>map(editedCustomer -> {
+                    log.info("Customer with ID {} updated successfully.", id);
+                    return CustomerController.withETag(ResponseEntity.ok(), editedCustomer).body(editedCustomer);
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.warn("Sorry, the customer with id " + id + " does not exist.");
+                    return new ResponseEntity<>("Sorry, the customer id " + id + " does not exist.", HttpStatus.NOT_FOUND);
+                }));
+    }
+
+    @DeleteMapping("/delete/{id}")
+    @ApiOperation(value = "Deletes Customer entry by ID",
+            notes = "Provide an id to delete specific customer from the database",
+            response = String.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The request has succeeded"),
+            @ApiResponse(code = 404, message = "The server has not found anything matching the Request-URI"),
+            @ApiResponse(code = 500, message = "Server error")
+    })
+    public Mono<ResponseEntity<String>> deleteCustomer(@PathVariable Long id) {
+        return customerService.deleteCustomerById(id)
+                .map(isDeleteSuccessful -> {
+                    if (isDeleteSuccessful) {
+                        log.info("Customer entry with ID: {} deleted", id);
+                        return ResponseEntity.ok("Customer entry with ID " + id + " deleted");
+                    }
+                    log.warn("Cannot delete Customer entry with ID: {}, customer not found", id);
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Customer not found with ID: " + id);
+                });
+    }
+
+    private Mono<ResponseEntity<?>> findCustomersByIds(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_LOOKUP_SIZE) {
+            log.warn("Invalid lookup size: {}", ids.size());
+            return Mono.just(new ResponseEntity<>("Sorry, the list must contain between 1 and " + MAX_LOOKUP_SIZE + " ids.", HttpStatus.BAD_REQUEST));
+        }
+        return customerService.findCustomersByIds(ids)
+                .map(customersById -> {
+                    log.info("Found {} Customer entries, {} ids missing", customersById.getCustomers().size(), customersById.getMissingIds().size());
+                    return ResponseEntity.ok(customersById);
+                });
+    }
+}
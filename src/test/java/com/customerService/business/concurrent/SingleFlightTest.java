@@ -0,0 +1,120 @@
+package com.customerService.business.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SingleFlightTest {
+
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testExecute_SequentialCalls_LoadEachTime() {
+        assertEquals("customer1", singleFlight.execute(1L, this::load));
+        assertEquals("customer1", singleFlight.execute(1L, this::load));
+        assertEquals(2, loads.get());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void testExecute_ConcurrentCalls_ShareOneLoad() throws Exception {
+        Future<String> leader = executor.submit(() -> singleFlight.execute(1L, this::blockingLoad));
+        awaitInFlight();
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            followers.add(executor.submit(() -> singleFlight.execute(1L, this::load)));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        assertEquals("customer1", leader.get(1, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("customer1", follower.get(1, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void testExecute_DifferentKeys_LoadSeparately() throws Exception {
+        Future<String> first = executor.submit(() -> singleFlight.execute(1L, this::blockingLoad));
+        awaitInFlight();
+
+        assertEquals("customer2", singleFlight.execute(2L, () -> "customer2"));
+        release.countDown();
+        assertEquals("customer1", first.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testExecute_LoaderFails_WaitersGetSameExceptionAndNothingIsKept() throws Exception {
+        Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+            blockingLoad();
+            throw new IllegalStateException("database down");
+        }));
+        awaitInFlight();
+        Future<String> follower = executor.submit(() -> singleFlight.execute(1L, this::load));
+        Thread.sleep(200);
+        release.countDown();
+
+        ExecutionException leaderError = assertThrows(ExecutionException.class, () -> leader.get(1, TimeUnit.SECONDS));
+        ExecutionException followerError = assertThrows(ExecutionException.class, () -> follower.get(1, TimeUnit.SECONDS));
+        assertTrue(leaderError.getCause() instanceof IllegalStateException);
+        assertTrue(followerError.getCause() instanceof IllegalStateException);
+        assertEquals("customer1", singleFlight.execute(1L, this::load));
+    }
+
+    @Test
+    void testForget_LaterCallerStartsNewLoad() throws Exception {
+        Future<String> stale = executor.submit(() -> singleFlight.execute(1L, this::blockingLoad));
+        awaitInFlight();
+
+        singleFlight.forget(1L);
+        assertEquals("customer1", singleFlight.execute(1L, this::load));
+        assertEquals(2, loads.get());
+        release.countDown();
+        assertEquals("customer1", stale.get(1, TimeUnit.SECONDS));
+    }
+
+    private String load() {
+        loads.incrementAndGet();
+        return "customer1";
+    }
+
+    private String blockingLoad() {
+        loads.incrementAndGet();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "customer1";
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        while (singleFlight.inFlight() == 0) {
+            Thread.sleep(5);
+        }
+    }
+}
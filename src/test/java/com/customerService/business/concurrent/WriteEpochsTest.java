@@ -0,0 +1,37 @@
+package com.customerService.business.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WriteEpochsTest {
+
+    private final WriteEpochs<Long> writeEpochs = new WriteEpochs<>(16);
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @Test
+    void testRunIfUnchanged_NoWriteSinceRead_Runs() {
+        long epoch = writeEpochs.current(1L);
+        assertTrue(writeEpochs.runIfUnchanged(1L, epoch, runs::incrementAndGet));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void testRunIfUnchanged_WriteSinceRead_Skips() {
+        long epoch = writeEpochs.current(1L);
+        writeEpochs.advance(1L);
+        assertFalse(writeEpochs.runIfUnchanged(1L, epoch, runs::incrementAndGet));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void testRunIfUnchanged_WriteToKeyOnAnotherStripe_Runs() {
+        long epoch = writeEpochs.current(1L);
+        writeEpochs.advance(2L);
+        assertTrue(writeEpochs.runIfUnchanged(1L, epoch, runs::incrementAndGet));
+    }
+}
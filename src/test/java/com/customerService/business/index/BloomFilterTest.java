@@ -0,0 +1,34 @@
+package com.customerService.business.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BloomFilterTest {
+
+    @Test
+    void testMightContain_NoFalseNegatives() {
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloomFilter.put("customer" + i + "@email.com");
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(bloomFilter.mightContain("customer" + i + "@email.com"));
+        }
+    }
+
+    @Test
+    void testMightContain_FalsePositiveRateNearConfiguredProbability() {
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloomFilter.put("customer" + i + "@email.com");
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (bloomFilter.mightContain("other" + i + "@email.com")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,67 @@
+package com.customerService.business.index;
+
+import com.customerService.business.service.CustomerService;
+import com.customerService.model.Address;
+import com.customerService.model.Customer;
+import com.customerService.model.CustomerChanges;
+import com.customerService.model.CustomerSuggestion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomerSuggestIndexRefresherTest {
+
+    @Mock
+    private CustomerService customerService;
+
+    private final CustomerSuggestIndex suggestIndex = new CustomerSuggestIndex();
+
+    @Test
+    void testRefresh_AppliesChangedAndDeletedCustomersPageByPage() {
+        suggestIndex.put(2L, "gone@email.com", "Gone", "Customer");
+        Customer remote = new Customer(1L, "remote@email.com", "password1", "Remote", "Writer",
+                new Address(1L, "12345678", "Latvia", "Riga", "1001"), 0L);
+        when(customerService.getChangesSince(startsWith(""), anyInt()))
+                .thenReturn(new CustomerChanges(Collections.singletonList(remote), Collections.emptyList(), "100-1", true));
+        when(customerService.getChangesSince(eq("100-1"), anyInt()))
+                .thenReturn(new CustomerChanges(Collections.emptyList(), Collections.singletonList(2L), "200-2", false));
+        CustomerSuggestIndexRefresher refresher = new CustomerSuggestIndexRefresher(customerService, suggestIndex, 0, 5000);
+
+        refresher.refresh();
+
+        List<CustomerSuggestion> suggestions = suggestIndex.suggest("remote", 10);
+        assertEquals(1, suggestions.size());
+        assertEquals(1L, suggestions.get(0).getId());
+        assertTrue(suggestIndex.suggest("gone", 10).isEmpty());
+    }
+
+    @Test
+    void testRefresh_FailedPoll_RetriedFromTheSameToken() {
+        when(customerService.getChangesSince(startsWith(""), anyInt()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(new CustomerChanges(Collections.emptyList(), Collections.emptyList(), "300-3", false));
+        CustomerSuggestIndexRefresher refresher = new CustomerSuggestIndexRefresher(customerService, suggestIndex, 0, 5000);
+
+        refresher.refresh();
+        refresher.refresh();
+        refresher.refresh();
+
+        verify(customerService, times(2)).getChangesSince(argThat(token -> !token.equals("300-3")), anyInt());
+        verify(customerService).getChangesSince(eq("300-3"), anyInt());
+    }
+}
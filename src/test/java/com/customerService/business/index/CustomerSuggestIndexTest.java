@@ -0,0 +1,100 @@
+package com.customerService.business.index;
+
+import com.customerService.business.repository.CustomerRepository;
+import com.customerService.model.CustomerSuggestion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomerSuggestIndexTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+    @InjectMocks
+    private CustomerSuggestIndex suggestIndex;
+
+    @AfterEach
+    public void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testSuggest_MatchesAnyFieldByPrefixIgnoringCase() {
+        load(new CustomerSuggestion(1L, "anna.berzina@example.com", "Anna", "Berzina"),
+                new CustomerSuggestion(2L, "john.doe@example.com", "John", "Annson"),
+                new CustomerSuggestion(3L, "jane@example.com", "Jane", "Smith"));
+        assertEquals(Arrays.asList(1L, 2L), ids(suggestIndex.suggest("ANN", 10)));
+        assertEquals(Collections.singletonList(2L), ids(suggestIndex.suggest("john.", 10)));
+        assertEquals(Arrays.asList(3L, 2L), ids(suggestIndex.suggest("j", 10)));
+        assertTrue(suggestIndex.suggest("x", 10).isEmpty());
+    }
+
+    @Test
+    void testSuggest_CustomerMatchingSeveralFieldsIsReturnedOnce() {
+        load(new CustomerSuggestion(1L, "anna@example.com", "Anna", "Annson"));
+        assertEquals(Collections.singletonList(1L), ids(suggestIndex.suggest("ann", 10)));
+    }
+
+    @Test
+    void testSuggest_StopsAtLimit() {
+        load(new CustomerSuggestion(1L, "a1@example.com", "Anna", "A"),
+                new CustomerSuggestion(2L, "a2@example.com", "Anna", "B"),
+                new CustomerSuggestion(3L, "a3@example.com", "Anna", "C"));
+        assertEquals(2, suggestIndex.suggest("anna", 2).size());
+    }
+
+    @Test
+    void testPut_ReplacesOldKeysOfTheCustomer() {
+        load(new CustomerSuggestion(1L, "anna@example.com", "Anna", "Berzina"));
+        suggestIndex.put(1L, "anna@example.com", "Anna", "Ozola");
+        assertTrue(suggestIndex.suggest("berz", 10).isEmpty());
+        assertEquals(Collections.singletonList(1L), ids(suggestIndex.suggest("ozo", 10)));
+        assertEquals(1, suggestIndex.getSize());
+    }
+
+    @Test
+    void testRemoveAll_DropsCustomers() {
+        load(new CustomerSuggestion(1L, "anna@example.com", "Anna", "Berzina"),
+                new CustomerSuggestion(2L, "anita@example.com", "Anita", "Liepa"));
+        suggestIndex.removeAll(Arrays.asList(1L, 99L));
+        assertEquals(Collections.singletonList(2L), ids(suggestIndex.suggest("an", 10)));
+    }
+
+    @Test
+    void testPut_InTransaction_AppliedOnlyAfterCommit() {
+        load();
+        TransactionSynchronizationManager.initSynchronization();
+        suggestIndex.put(1L, "anna@example.com", "Anna", "Berzina");
+        assertTrue(suggestIndex.suggest("anna", 10).isEmpty());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(Collections.singletonList(1L), ids(suggestIndex.suggest("anna", 10)));
+    }
+
+    private void load(CustomerSuggestion... suggestions) {
+        when(customerRepository.streamAllSuggestions()).thenReturn(Stream.of(suggestions));
+        suggestIndex.load();
+        assertTrue(suggestIndex.isLoaded());
+    }
+
+    private static List<Long> ids(List<CustomerSuggestion> suggestions) {
+        return suggestions.stream().map(CustomerSuggestion::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,88 @@
+package com.customerService.business.index;
+
+import com.customerService.business.repository.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailIndexTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+    @InjectMocks
+    private EmailIndex emailIndex;
+
+    @BeforeEach
+    public void init() {
+        ReflectionTestUtils.setField(emailIndex, "expectedInsertions", 1000L);
+        ReflectionTestUtils.setField(emailIndex, "falsePositiveProbability", 0.01);
+    }
+
+    @Test
+    void testMightContain_NotLoaded_AlwaysAsksDatabase() {
+        assertFalse(emailIndex.isLoaded());
+        assertTrue(emailIndex.mightContain("any@email.com"));
+    }
+
+    @Test
+    void testMightContain_Loaded_RulesOutUnknownEmails() {
+        when(customerRepository.count()).thenReturn(2L);
+        when(customerRepository.streamAllEmails()).thenReturn(Stream.of("john.doe@example.com", "Jane.Smith@example.com"));
+        emailIndex.load();
+        assertTrue(emailIndex.isLoaded());
+        assertEquals(2, emailIndex.getSize());
+        assertTrue(emailIndex.mightContain("john.doe@example.com"));
+        assertTrue(emailIndex.mightContain("jane.smith@EXAMPLE.com"));
+        assertFalse(emailIndex.mightContain("new@example.com"));
+        assertEquals(1, emailIndex.getSkippedLookups());
+    }
+
+    @Test
+    void testAdd_AfterLoad_EmailIsKnown() {
+        when(customerRepository.streamAllEmails()).thenReturn(Stream.empty());
+        emailIndex.load();
+        emailIndex.add("new@example.com");
+        assertTrue(emailIndex.mightContain("new@example.com"));
+    }
+
+    @Test
+    void testFalsePositiveRate() {
+        when(customerRepository.streamAllEmails()).thenReturn(Stream.empty());
+        emailIndex.load();
+        emailIndex.mightContain("first@example.com");
+        emailIndex.mightContain("second@example.com");
+        emailIndex.mightContain("third@example.com");
+        emailIndex.recordDatabaseResult(false);
+        emailIndex.recordDatabaseResult(true);
+        assertEquals(1, emailIndex.getFalsePositives());
+        assertEquals(1, emailIndex.getConfirmedPositives());
+        assertEquals(0.25, emailIndex.getFalsePositiveRate());
+    }
+
+    @Test
+    void testBindTo_PublishesLookupCountersAndFalsePositiveRate() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        emailIndex.bindTo(registry);
+        when(customerRepository.streamAllEmails()).thenReturn(Stream.empty());
+        emailIndex.load();
+        emailIndex.mightContain("first@example.com");
+        emailIndex.recordDatabaseResult(false);
+        assertEquals(1.0, registry.get("customer.email.index.lookups").tag("result", "skipped").functionCounter().count());
+        assertEquals(1.0, registry.get("customer.email.index.lookups").tag("result", "false_positive").functionCounter().count());
+        assertEquals(0.0, registry.get("customer.email.index.lookups").tag("result", "confirmed").functionCounter().count());
+        assertEquals(0.5, registry.get("customer.email.index.false.positive.rate").gauge().value());
+    }
+}
@@ -0,0 +1,317 @@
+package com.customerService.business.repository;
+
+import com.customerService.business.repository.model.AddressDAO;
+import com.customerService.business.repository.model.CustomerAddressId;
+import com.customerService.business.repository.model.CustomerDAO;
+import com.customerService.business.repository.model.CustomerTombstoneDAO;
+import com.customerService.business.repository.model.CustomerView;
+import com.customerService.model.CustomerSearchCriteria;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+
+import javax.persistence.EntityManager;
+import javax.persistence.OptimisticLockException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class CustomerRepositoryTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private AddressRepository addressRepository;
+    @Autowired
+    private CustomerTombstoneRepository tombstoneRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void init() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testFindAll_StatementCountDoesNotGrowWithRows() {
+        long statementsBefore = countStatements(() -> assertTrue(customerRepository.findAll().size() > 0));
+        saveCustomers(20);
+        long statementsAfter = countStatements(() -> customerRepository.findAll().forEach(this::assertAddressLoaded));
+        assertEquals(1, statementsBefore);
+        assertEquals(statementsBefore, statementsAfter);
+    }
+
+    @Test
+    void testFindViewPageAfterId_StatementCountDoesNotGrowWithRows() {
+        saveCustomers(20);
+        long statements = countStatements(() -> {
+            List<CustomerView> page = customerRepository.findViewPageAfterId(0L, PageRequest.of(0, 15));
+            assertEquals(15, page.size());
+            page.forEach(customerView -> assertNotNull(customerView.getCity()));
+        });
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void testFindViewById_ReturnsCustomerWithAddress() {
+        CustomerDAO saved = saveCustomers(1).get(0);
+        long statements = countStatements(() -> {
+            Optional<CustomerView> customerView = customerRepository.findViewById(saved.getId());
+            assertTrue(customerView.isPresent());
+            assertEquals(saved.getEmail(), customerView.get().getEmail());
+            assertEquals(saved.getAddressDAO().getId(), customerView.get().toCustomer().getAddress().getId());
+        });
+        assertEquals(1, statements);
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testFindViewsByIds_SingleStatement() {
+        List<CustomerDAO> saved = saveCustomers(3);
+        List<Long> ids = Arrays.asList(saved.get(0).getId(), saved.get(2).getId(), 999_999L);
+        long statements = countStatements(() -> assertEquals(2, customerRepository.findViewsByIds(ids).size()));
+        assertEquals(1, statements);
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testFindPageAfterId_FiltersAndPagesInSingleStatement() {
+        List<CustomerDAO> saved = saveCustomers(5);
+        saved.get(1).getAddressDAO().setCity("Liepaja");
+        saved.get(1).setLastName("Other");
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria("Latvia", "Riga", null, "last");
+        List<CustomerDAO> firstPage = new ArrayList<>();
+        long statements = countStatements(() -> {
+            firstPage.addAll(customerRepository.findPageAfterId(CustomerSpecifications.matching(criteria), 0L, 3));
+            firstPage.forEach(this::assertAddressLoaded);
+        });
+        assertEquals(1, statements);
+        assertEquals(Arrays.asList(saved.get(0).getId(), saved.get(2).getId(), saved.get(3).getId()),
+                firstPage.stream().map(CustomerDAO::getId).collect(Collectors.toList()));
+        List<CustomerDAO> nextPage = customerRepository.findPageAfterId(
+                CustomerSpecifications.matching(criteria), saved.get(3).getId(), 3);
+        assertEquals(Collections.singletonList(saved.get(4).getId()),
+                nextPage.stream().map(CustomerDAO::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testLastNameStartsWith_EscapesWildcards() {
+        saveCustomers(2);
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria(null, null, null, "last%");
+        assertTrue(customerRepository.findPageAfterId(CustomerSpecifications.matching(criteria), 0L, 10).isEmpty());
+    }
+
+    @Test
+    void testFindById_SingleStatement() {
+        Long id = saveCustomers(1).get(0).getId();
+        long statements = countStatements(() -> {
+            Optional<CustomerDAO> customerDAO = customerRepository.findById(id);
+            assertTrue(customerDAO.isPresent());
+            assertAddressLoaded(customerDAO.get());
+        });
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void testStreamAll_StatementCountDoesNotGrowWithRows() {
+        saveCustomers(20);
+        long statements = countStatements(() -> {
+            try (Stream<CustomerDAO> stream = customerRepository.streamAll()) {
+                stream.forEach(this::assertAddressLoaded);
+            }
+        });
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void testSaveAll_InsertsAreBatched() {
+        long statements = countStatements(() -> saveCustomers(40));
+        // one id block select + update per table and one insert batch per table, never one insert per row
+        assertTrue(statements <= 8, "prepared statements: " + statements);
+    }
+
+    @Test
+    void testSaveAll_IdsDoNotCollideWithExistingRows() {
+        List<CustomerDAO> saved = saveCustomers(60);
+        entityManager.flush();
+        Set<Long> ids = saved.stream().map(CustomerDAO::getId).collect(Collectors.toSet());
+        assertEquals(60, ids.size());
+        assertEquals(3 + 60, customerRepository.count());
+    }
+
+    @Test
+    void testDeleteCustomersByIds_DeletesCustomerAndAddressRows() {
+        List<CustomerDAO> saved = saveCustomers(2);
+        entityManager.flush();
+        List<Long> ids = Arrays.asList(saved.get(0).getId(), saved.get(1).getId(), 999_999L);
+        long statements = countStatements(() -> {
+            List<CustomerAddressId> existing = customerRepository.findCustomerAddressIds(ids);
+            assertEquals(Arrays.asList(saved.get(0).getId(), saved.get(1).getId()), existing.stream()
+                    .map(CustomerAddressId::getCustomerId).sorted().collect(Collectors.toList()));
+            List<Long> addressIds = existing.stream().map(CustomerAddressId::getAddressId).collect(Collectors.toList());
+            assertEquals(2, customerRepository.deleteCustomersByIds(ids));
+            assertEquals(2, addressRepository.deleteAddressesByIds(addressIds));
+        });
+        assertEquals(3, statements);
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertFalse(customerRepository.existsById(saved.get(0).getId()));
+        assertFalse(addressRepository.existsById(saved.get(0).getAddressDAO().getId()));
+    }
+
+    @Test
+    void testPhoneNumberChange_UpdatesOnlyAddressRowWithDynamicSql() {
+        Long id = saveCustomers(1).get(0).getId();
+        long unchanged = countStatements(() -> {
+            CustomerDAO customerDAO = entityManager.find(CustomerDAO.class, id);
+            customerDAO.getAddressDAO().setPhoneNumber("12345678");
+            entityManager.flush();
+        });
+        long phoneChanged = countStatements(() -> {
+            CustomerDAO customerDAO = entityManager.find(CustomerDAO.class, id);
+            customerDAO.getAddressDAO().setPhoneNumber("99999999");
+            entityManager.flush();
+        });
+        assertEquals(1, unchanged);
+        assertEquals(2, phoneChanged);
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        assertTrue(sessionFactory.getMetamodel().entityPersister(CustomerDAO.class).getEntityMetamodel().isDynamicUpdate());
+        assertTrue(sessionFactory.getMetamodel().entityPersister(AddressDAO.class).getEntityMetamodel().isDynamicUpdate());
+    }
+
+    @Test
+    void testAggregateVersion_GrowsWhenOnlyAddressChanges() {
+        Long id = saveCustomers(1).get(0).getId();
+        entityManager.flush();
+        entityManager.clear();
+        CustomerDAO customerDAO = customerRepository.findById(id).get();
+        long versionBefore = customerDAO.getAggregateVersion();
+        customerDAO.getAddressDAO().setCity("Liepaja");
+        entityManager.flush();
+        assertEquals(versionBefore + 1, customerDAO.getAggregateVersion());
+        assertEquals(customerDAO.getAggregateVersion(), customerRepository.findViewById(id).get().getVersion());
+    }
+
+    @Test
+    void testStaleUpdate_RejectedByVersionColumn() {
+        Long id = saveCustomers(1).get(0).getId();
+        entityManager.flush();
+        entityManager.clear();
+        CustomerDAO customerDAO = customerRepository.findById(id).get();
+        assertEquals(1, entityManager.createQuery("update CustomerDAO c set c.version = c.version + 1 where c.id = :id")
+                .setParameter("id", id).executeUpdate());
+        customerDAO.setFirstName("Changed");
+        assertThrows(OptimisticLockException.class, () -> entityManager.flush());
+    }
+
+    @Test
+    void testUpdatedAt_SetOnInsertAndBumpedByDynamicUpdate() throws InterruptedException {
+        Long id = saveCustomers(1).get(0).getId();
+        entityManager.flush();
+        entityManager.clear();
+        CustomerDAO customerDAO = customerRepository.findById(id).get();
+        Instant inserted = customerDAO.getUpdatedAt();
+        assertNotNull(inserted);
+        Thread.sleep(5);
+        customerDAO.setFirstName("Changed");
+        entityManager.flush();
+        entityManager.clear();
+        assertTrue(customerRepository.findById(id).get().getUpdatedAt().isAfter(inserted));
+    }
+
+    @Test
+    void testFindChangedPageAfter_KeysetOverTimeAndId() {
+        List<CustomerDAO> saved = saveCustomers(3);
+        entityManager.flush();
+        Instant time = Instant.parse("2024-01-01T10:00:00Z");
+        for (CustomerDAO customerDAO : saved) {
+            entityManager.createNativeQuery("update customer set updated_at = :time where id = :id")
+                    .setParameter("time", time).setParameter("id", customerDAO.getId()).executeUpdate();
+        }
+        Instant until = time.plusSeconds(1);
+        List<Long> ids = new ArrayList<>();
+        long statements = countStatements(() -> customerRepository.findChangedPageAfter(time, saved.get(0).getId(), until, PageRequest.of(0, 10))
+                .forEach(customerDAO -> {
+                    assertAddressLoaded(customerDAO);
+                    ids.add(customerDAO.getId());
+                }));
+        assertEquals(1, statements);
+        assertEquals(Arrays.asList(saved.get(1).getId(), saved.get(2).getId()), ids);
+        assertTrue(customerRepository.findChangedPageAfter(time, 0L, time.minusSeconds(1), PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void testInsertForExistingCustomers_OnlyExistingIds() {
+        List<CustomerDAO> saved = saveCustomers(2);
+        entityManager.flush();
+        Instant deletedAt = Instant.parse("2024-01-01T10:00:00Z");
+        assertEquals(2, tombstoneRepository.insertForExistingCustomers(
+                Arrays.asList(saved.get(0).getId(), saved.get(1).getId(), 999_999L), deletedAt));
+        List<CustomerTombstoneDAO> tombstones = tombstoneRepository.findPageAfter(
+                deletedAt.minusSeconds(1), 0L, deletedAt, PageRequest.of(0, 10));
+        assertEquals(Arrays.asList(saved.get(0).getId(), saved.get(1).getId()),
+                tombstones.stream().map(CustomerTombstoneDAO::getCustomerId).collect(Collectors.toList()));
+    }
+
+    private long countStatements(Runnable query) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        query.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void assertAddressLoaded(CustomerDAO customerDAO) {
+        assertNotNull(customerDAO.getAddressDAO().getCity());
+    }
+
+    @Test
+    void testDuplicateEmail_RecognizedAsUniqueEmailViolation() {
+        AddressDAO addressDAO = new AddressDAO(null, "12345678", "Latvia", "Riga", "LV-1001", null, null);
+        CustomerDAO duplicate = new CustomerDAO(null, "john.doe@example.com", "password1", "name", "lastName", addressDAO, null, null);
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                () -> customerRepository.saveAndFlush(duplicate));
+        assertTrue(CustomerConstraints.isUniqueEmailViolation(exception));
+    }
+
+    @Test
+    void testTooLongColumn_NotAUniqueEmailViolation() {
+        AddressDAO addressDAO = new AddressDAO(null, "12345678", "Latvia", "Riga", "LV-1001", null, null);
+        CustomerDAO tooLong = new CustomerDAO(null, "too.long@example.com", "password1", "name",
+                String.join("", Collections.nCopies(60, "x")), addressDAO, null, null);
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                () -> customerRepository.saveAndFlush(tooLong));
+        assertFalse(CustomerConstraints.isUniqueEmailViolation(exception));
+    }
+
+    private List<CustomerDAO> saveCustomers(int count) {
+        List<CustomerDAO> customers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            AddressDAO addressDAO = new AddressDAO(null, "12345678", "Latvia", "Riga", "LV-1001", null, null);
+            customers.add(new CustomerDAO(null, "repository" + i + "@email.com", "password1", "name" + i, "lastName" + i, addressDAO, null, null));
+        }
+        return customerRepository.saveAll(customers);
+    }
+}
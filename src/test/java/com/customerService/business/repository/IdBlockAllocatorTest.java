@@ -0,0 +1,69 @@
+package com.customerService.business.repository;
+
+import com.customerService.business.service.CustomerService;
+import com.customerService.model.Address;
+import com.customerService.model.BulkSaveResult;
+import com.customerService.model.Customer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs more concurrent bulk saves than the pool has connections. Each save needs a second id block while
+ * its first chunk holds a connection, which used to leave every request waiting for a connection.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=3000"})
+public class IdBlockAllocatorTest {
+
+    private static final int REQUESTS = 4;
+    private static final int CUSTOMERS_PER_REQUEST = 120;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Test
+    void testConcurrentBulkSaves_MoreThanPoolSize_AllComplete() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+        List<Long> savedIds = new ArrayList<>();
+        try {
+            List<Future<List<BulkSaveResult>>> futures = new ArrayList<>();
+            for (int request = 0; request < REQUESTS; request++) {
+                List<Customer> customers = customers(request);
+                futures.add(executor.submit(() -> customerService.saveCustomers(customers)));
+            }
+            for (Future<List<BulkSaveResult>> future : futures) {
+                for (BulkSaveResult result : future.get(60, TimeUnit.SECONDS)) {
+                    assertEquals(201, result.getStatus());
+                    savedIds.add(result.getCustomer().getId());
+                }
+            }
+            assertEquals(REQUESTS * CUSTOMERS_PER_REQUEST, savedIds.stream().distinct().count());
+        } finally {
+            executor.shutdownNow();
+            if (!savedIds.isEmpty()) {
+                customerService.deleteCustomersByIds(savedIds);
+            }
+        }
+    }
+
+    private static List<Customer> customers(int request) {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS_PER_REQUEST; i++) {
+            Address address = new Address(null, "12345678", "Latvia", "Riga", "LV-1001");
+            customers.add(new Customer(null, "bulk" + request + "-" + i + "@example.com", "password",
+                    "Bulk", "Save", address, null));
+        }
+        return customers;
+    }
+}
@@ -0,0 +1,128 @@
+package com.customerService.business.service.impl;
+
+import com.customerService.business.service.CustomerService;
+import com.customerService.config.RequestContextTaskDecorator;
+import com.customerService.config.datasource.PrimaryReads;
+import com.customerService.model.Customer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AsyncCustomerServiceImplTest {
+
+    @Mock
+    private CustomerService customerService;
+
+    private ThreadPoolTaskExecutor executor;
+    private AsyncCustomerServiceImpl asyncCustomerService;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setTaskDecorator(new RequestContextTaskDecorator());
+        executor.initialize();
+        asyncCustomerService = new AsyncCustomerServiceImpl(customerService, executor, 2000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        MDC.clear();
+        asyncCustomerService.destroy();
+        executor.shutdown();
+    }
+
+    @Test
+    void testFindCustomerByIdAsync_RunsOnExecutorWithCallerMdc() throws Exception {
+        Customer customer = new Customer();
+        AtomicReference<String> requestId = new AtomicReference<>();
+        AtomicReference<String> threadName = new AtomicReference<>();
+        when(customerService.findCustomerById(1L)).thenAnswer(invocation -> {
+            requestId.set(MDC.get("requestId"));
+            threadName.set(Thread.currentThread().getName());
+            return Optional.of(customer);
+        });
+        MDC.put("requestId", "abc");
+
+        assertEquals(Optional.of(customer), asyncCustomerService.findCustomerByIdAsync(1L).get(1, TimeUnit.SECONDS));
+        assertEquals("abc", requestId.get());
+        assertTrue(threadName.get().startsWith(executor.getThreadNamePrefix()));
+    }
+
+    @Test
+    void testFindCustomerByIdAsync_CallerRequiresPrimaryReads_PoolThreadReadsPrimary() throws Exception {
+        List<Boolean> primaryReads = new ArrayList<>();
+        when(customerService.findCustomerById(1L)).thenAnswer(invocation -> {
+            primaryReads.add(PrimaryReads.isRequired());
+            return Optional.empty();
+        });
+        boolean previous = PrimaryReads.require();
+        try {
+            asyncCustomerService.findCustomerByIdAsync(1L).get(1, TimeUnit.SECONDS);
+        } finally {
+            PrimaryReads.restore(previous);
+        }
+        asyncCustomerService.findCustomerByIdAsync(1L).get(1, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList(true, false), primaryReads);
+    }
+
+    @Test
+    void testFindCustomerByIdAsync_SlowCall_TimesOut() {
+        when(customerService.findCustomerById(1L)).thenAnswer(invocation -> {
+            release.await();
+            return Optional.empty();
+        });
+
+        CompletableFuture<Optional<Customer>> future = asyncCustomerService.findCustomerByIdAsync(1L, Duration.ofMillis(50));
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertTrue(thrown.getCause() instanceof TimeoutException);
+    }
+
+    @Test
+    void testIsEmailExistingAsync_ExecutorFull_Rejected() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        when(customerService.isEmailExisting("busy@example.com")).thenAnswer(invocation -> {
+            running.countDown();
+            release.await();
+            return true;
+        });
+        asyncCustomerService.isEmailExistingAsync("busy@example.com");
+        assertTrue(running.await(1, TimeUnit.SECONDS));
+        asyncCustomerService.isEmailExistingAsync("busy@example.com");
+
+        CompletableFuture<Boolean> rejected = asyncCustomerService.isEmailExistingAsync("busy@example.com");
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        assertTrue(thrown.getCause() instanceof TaskRejectedException);
+    }
+}
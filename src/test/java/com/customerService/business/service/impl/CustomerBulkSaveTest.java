@@ -0,0 +1,60 @@
+package com.customerService.business.service.impl;
+
+import com.customerService.business.repository.CustomerRepository;
+import com.customerService.business.repository.model.AddressDAO;
+import com.customerService.business.repository.model.CustomerDAO;
+import com.customerService.business.service.CustomerService;
+import com.customerService.model.Address;
+import com.customerService.model.BulkSaveResult;
+import com.customerService.model.Customer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The taken email is written straight through the repository, so the email index does not know it and the
+ * bulk save's pre-check misses it, like an email registered by a concurrent request.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.jdbc.batch_size=2")
+public class CustomerBulkSaveTest {
+
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void testSaveCustomers_EmailTakenBehindThePreCheck_OnlyThatEntryRejected() {
+        AddressDAO addressDAO = new AddressDAO(null, "12345678", "Latvia", "Riga", "LV-1001", null, null);
+        CustomerDAO taken = customerRepository.saveAndFlush(
+                new CustomerDAO(null, "bulk-taken@example.com", "password", "Taken", "Email", addressDAO, null, null));
+        List<Long> savedIds = new ArrayList<>();
+        savedIds.add(taken.getId());
+        try {
+            List<Customer> customers = new ArrayList<>();
+            for (String email : new String[]{"bulk-first@example.com", "bulk-second@example.com",
+                    "bulk-third@example.com", "bulk-taken@example.com"}) {
+                customers.add(new Customer(null, email, "password", "Bulk", "Save",
+                        new Address(null, "12345678", "Latvia", "Riga", "LV-1001"), null));
+            }
+
+            List<BulkSaveResult> results = customerService.saveCustomers(customers);
+
+            for (int i = 0; i < 3; i++) {
+                assertEquals(201, results.get(i).getStatus());
+                savedIds.add(results.get(i).getCustomer().getId());
+            }
+            assertEquals(400, results.get(3).getStatus());
+            assertTrue(results.get(3).getError().contains("already registered"));
+            assertTrue(customerRepository.findById(savedIds.get(3)).isPresent());
+        } finally {
+            customerService.deleteCustomersByIds(savedIds);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.customerService.business.service.impl;
+
+import com.customerService.business.repository.AddressRepository;
+import com.customerService.business.repository.CustomerRepository;
+import com.customerService.business.repository.CustomerTombstoneRepository;
+import com.customerService.business.repository.model.AddressDAO;
+import com.customerService.business.repository.model.CustomerAddressId;
+import com.customerService.business.repository.model.CustomerDAO;
+import com.customerService.business.repository.model.CustomerView;
+import com.customerService.business.service.CustomerService;
+import com.customerService.config.CacheConfig;
+import com.customerService.model.Address;
+import com.customerService.model.Customer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+public class CustomerServiceCacheTest {
+
+    @MockBean
+    private CustomerRepository customerRepository;
+    @MockBean
+    private AddressRepository addressRepository;
+    @MockBean
+    private CustomerTombstoneRepository tombstoneRepository;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private CacheManager cacheManager;
+
+    private CustomerView customerView;
+
+    @BeforeEach
+    public void init() {
+        cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE).clear();
+        customerView = new CustomerView(1L, "email@email.com", "password1", "name1", "lastName1",
+                1L, "12345678", "Riga", "Riga", "1001", 0L);
+    }
+
+    @Test
+    void testFindCustomerById_SecondCallServedFromCache() {
+        when(customerRepository.findViewById(1L)).thenReturn(Optional.of(customerView));
+        Optional<Customer> first = customerService.findCustomerById(1L);
+        Optional<Customer> second = customerService.findCustomerById(1L);
+        assertTrue(first.isPresent());
+        assertEquals(first, second);
+        verify(customerRepository, times(1)).findViewById(1L);
+    }
+
+    @Test
+    void testFindCustomerById_MissingIdNotCached() {
+        when(customerRepository.findViewById(99L)).thenReturn(Optional.empty());
+        assertFalse(customerService.findCustomerById(99L).isPresent());
+        assertFalse(customerService.findCustomerById(99L).isPresent());
+        verify(customerRepository, times(2)).findViewById(99L);
+    }
+
+    @Test
+    void testEditCustomerById_RefreshesCachedEntry() {
+        when(customerRepository.findViewById(1L)).thenReturn(Optional.of(customerView));
+        customerService.findCustomerById(1L);
+        CustomerDAO customerDAO = new CustomerDAO(1L, "email@email.com", "password1", "name1", "lastName1",
+                new AddressDAO(1L, "12345678", "Riga", "Riga", "1001", 0L, null), 0L, null);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customerDAO));
+        when(customerRepository.saveAndFlush(any(CustomerDAO.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Customer updatedCustomer = new Customer(1L, "updated@email.com", "password2", "updatedName", "updatedLastName",
+                new Address(1L, "87654321", "Latvia", "Riga", "1002"), null);
+        customerService.editCustomerById(1L, updatedCustomer);
+        Optional<Customer> cached = customerService.findCustomerById(1L);
+        assertTrue(cached.isPresent());
+        assertEquals("updated@email.com", cached.get().getEmail());
+        verify(customerRepository, times(1)).findViewById(1L);
+    }
+
+    @Test
+    void testDeleteCustomerById_EvictsCachedEntry() {
+        when(customerRepository.findViewById(1L)).thenReturn(Optional.of(customerView));
+        customerService.findCustomerById(1L);
+        when(customerRepository.findCustomerAddressIds(any())).thenReturn(Collections.singletonList(new CustomerAddressId(1L, 1L)));
+        when(customerRepository.deleteCustomersByIds(any())).thenReturn(1);
+        customerService.deleteCustomerById(1L);
+        customerService.findCustomerById(1L);
+        verify(customerRepository, times(2)).findViewById(1L);
+    }
+
+    @Test
+    void testFindCustomerById_EditCommitsWhileReading_OldStateNotCached() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(customerRepository.findViewById(1L)).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(customerView);
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Optional<Customer>> lookup = executor.submit(() -> customerService.findCustomerById(1L));
+            assertTrue(reading.await(5, TimeUnit.SECONDS));
+            CustomerDAO customerDAO = new CustomerDAO(1L, "email@email.com", "password1", "name1", "lastName1",
+                    new AddressDAO(1L, "12345678", "Riga", "Riga", "1001", 0L, null), 0L, null);
+            when(customerRepository.findById(1L)).thenReturn(Optional.of(customerDAO));
+            when(customerRepository.saveAndFlush(any(CustomerDAO.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            customerService.editCustomerById(1L, new Customer(1L, "updated@email.com", "password2", "updatedName",
+                    "updatedLastName", new Address(1L, "87654321", "Latvia", "Riga", "1002"), null));
+            release.countDown();
+
+            assertEquals("email@email.com", lookup.get(5, TimeUnit.SECONDS).get().getEmail());
+            assertEquals("updated@email.com", customerService.findCustomerById(1L).get().getEmail());
+            verify(customerRepository, times(1)).findViewById(1L);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFindCustomerById_DeleteCommitsWhileReading_DeletedCustomerNotCached() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(customerRepository.findViewById(1L)).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(customerView);
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Optional<Customer>> lookup = executor.submit(() -> customerService.findCustomerById(1L));
+            assertTrue(reading.await(5, TimeUnit.SECONDS));
+            when(customerRepository.findCustomerAddressIds(any())).thenReturn(Collections.singletonList(new CustomerAddressId(1L, 1L)));
+            when(customerRepository.deleteCustomersByIds(any())).thenReturn(1);
+            assertTrue(customerService.deleteCustomerById(1L));
+            release.countDown();
+            assertTrue(lookup.get(5, TimeUnit.SECONDS).isPresent());
+
+            when(customerRepository.findViewById(1L)).thenReturn(Optional.empty());
+            assertFalse(customerService.findCustomerById(1L).isPresent());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,31 +1,77 @@
 package com.customerService.business.service.impl;
 
+import com.customerService.business.events.CustomerChangeEvent;
+import com.customerService.business.exceptions.EmailAlreadyExistsException;
+import com.customerService.business.exceptions.InvalidSyncTokenException;
+import com.customerService.business.index.CustomerSuggestIndex;
+import com.customerService.business.index.EmailIndex;
 import com.customerService.business.mappers.AddressMapper;
 import com.customerService.business.mappers.CustomerMapper;
+import com.customerService.business.metrics.CustomerMetrics;
+import com.customerService.business.repository.AddressRepository;
 import com.customerService.business.repository.CustomerRepository;
+import com.customerService.business.repository.CustomerTombstoneRepository;
 import com.customerService.business.repository.model.AddressDAO;
+import com.customerService.business.repository.model.CustomerAddressId;
 import com.customerService.business.repository.model.CustomerDAO;
+import com.customerService.business.repository.model.CustomerTombstoneDAO;
+import com.customerService.business.repository.model.CustomerView;
+import com.customerService.config.CacheConfig;
+import com.customerService.config.datasource.PrimaryReads;
 import com.customerService.model.Address;
+import com.customerService.model.BulkSaveResult;
 import com.customerService.model.Customer;
+import com.customerService.model.CustomerChanges;
+import com.customerService.model.CustomerPage;
+import com.customerService.model.CustomerSearchCriteria;
+import com.customerService.model.CustomersById;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.sql.SQLException;
+import java.time.Instant;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -36,14 +82,36 @@ public class CustomerServiceImplTest {
     @Mock
     private CustomerRepository customerRepository;
     @Mock
+    private AddressRepository addressRepository;
+    @Mock
     private CustomerMapper customerMapper;
     @Mock
     private AddressMapper addressMapper;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private Validator validator;
+    @Mock
+    private EmailIndex emailIndex;
+    @Mock
+    private CustomerSuggestIndex suggestIndex;
+    @Mock
+    private CustomerTombstoneRepository tombstoneRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private CustomerMetrics customerMetrics;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private CacheManager cacheManager;
     @InjectMocks
     private CustomerServiceImpl customerService;
 
     private List<CustomerDAO> customerDAOList;
+    private List<CustomerView> customerViewList;
     private CustomerDAO customerDAO;
+    private CustomerView customerView;
     private Customer customer;
     private Customer updatedCustomer;
     private AddressDAO addressDAO;
@@ -57,84 +125,357 @@ public class CustomerServiceImplTest {
         addressDAO = createAddressDAO();
         customerDAO = createCustomerDAO(addressDAO);
         customerDAOList = createCustomerDAOList(customerDAO);
+        customerView = createCustomerView();
+        customerViewList = createCustomerViewList(customerView);
         customer = createCustomer(address);
         updatedCustomer = createUpdatedCustomer(updatedAddress);
+        ReflectionTestUtils.setField(customerService, "batchSize", 50);
+        ReflectionTestUtils.setField(customerService, "changesSafetyLagMs", 5000L);
     }
 
     @Test
     void testGetAllCustomerEntries_Successful() {
-        when(customerRepository.findAll()).thenReturn(customerDAOList);
-        when(customerMapper.daoToCustomer(customerDAO)).thenReturn(customer);
+        when(customerRepository.findAllViews()).thenReturn(customerViewList);
         List<Customer> list = customerService.getAllCustomers();
         assertEquals(2, list.size());
-        assertEquals(customer.getId(), list.get(0).getId());
-        verify(customerRepository, times(1)).findAll();
+        assertEquals(customer, list.get(0));
+        verify(customerRepository, times(1)).findAllViews();
+        verify(customerMapper, times(0)).daoToCustomer(any());
     }
 
     @Test
     void testGetAllCustomers_ListEmpty_Successful() {
-        when(customerRepository.findAll()).thenReturn(Collections.emptyList());
+        when(customerRepository.findAllViews()).thenReturn(Collections.emptyList());
         List<Customer> result = customerService.getAllCustomers();
-        verify(customerRepository, times(1)).findAll();
+        verify(customerRepository, times(1)).findAllViews();
         assertTrue(result.isEmpty());
     }
 
     @Test
-    void findCustomerById_Successful() {
-        when(customerRepository.findById(1L)).thenReturn(Optional.of(customerDAO));
+    void testGetCustomersPage_HasNextPage_Successful() {
+        when(customerRepository.findViewPageAfterId(0L, PageRequest.of(0, 2))).thenReturn(customerViewList);
+        CustomerPage page = customerService.getCustomersPage(null, 1);
+        assertEquals(1, page.getCustomers().size());
+        assertEquals(customerView.getId(), page.getNextCursor());
+        verify(customerRepository, times(1)).findViewPageAfterId(0L, PageRequest.of(0, 2));
+    }
+
+    @Test
+    void testGetCustomersPage_LastPage_Successful() {
+        when(customerRepository.findViewPageAfterId(1L, PageRequest.of(0, 3))).thenReturn(customerViewList);
+        CustomerPage page = customerService.getCustomersPage(1L, 2);
+        assertEquals(2, page.getCustomers().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testExportCustomers_Successful() {
+        when(customerRepository.streamAll()).thenReturn(customerDAOList.stream());
         when(customerMapper.daoToCustomer(customerDAO)).thenReturn(customer);
+        List<Customer> exported = new ArrayList<>();
+        long count = customerService.exportCustomers(exported::add);
+        assertEquals(2, count);
+        assertEquals(2, exported.size());
+        verify(entityManager, times(2)).detach(customerDAO);
+    }
+
+    @Test
+    void testExportCustomers_NoCustomers_Successful() {
+        when(customerRepository.streamAll()).thenReturn(Stream.empty());
+        long count = customerService.exportCustomers(exported -> { });
+        assertEquals(0, count);
+        verify(customerMapper, times(0)).daoToCustomer(any());
+    }
+
+    @Test
+    void findCustomerById_Successful() {
+        when(cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE)).thenReturn(new ConcurrentMapCache(CacheConfig.CUSTOMERS_CACHE));
+        when(customerRepository.findViewById(1L)).thenReturn(Optional.of(customerView));
         Optional<Customer> actualResult = customerService.findCustomerById(1L);
         assertTrue(actualResult.isPresent());
         assertEquals(customer, actualResult.get());
-        verify(customerRepository, times(1)).findById(1L);
-        verify(customerMapper, times(1)).daoToCustomer(customerDAO);
+        verify(customerRepository, times(1)).findViewById(1L);
+        verify(customerMapper, times(0)).daoToCustomer(any());
     }
 
     @Test
     void testFindCustomerById_NonExistingId_Failed() {
-        when(customerRepository.findById(99L)).thenReturn(Optional.empty());
+        when(cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE)).thenReturn(new ConcurrentMapCache(CacheConfig.CUSTOMERS_CACHE));
+        when(customerRepository.findViewById(99L)).thenReturn(Optional.empty());
         Optional<Customer> result = customerService.findCustomerById(99L);
         assertFalse(result.isPresent());
-        verify(customerRepository, times(1)).findById(anyLong());
+        verify(customerRepository, times(1)).findViewById(anyLong());
+    }
+
+    @Test
+    void testSearchCustomers_HasNextPage_ReturnsCursor() {
+        CustomerDAO second = createCustomerDAO(createAddressDAO());
+        second.setId(2L);
+        when(customerRepository.findPageAfterId(any(), eq(0L), eq(2))).thenReturn(Arrays.asList(customerDAO, second));
+        when(customerMapper.daoToCustomer(customerDAO)).thenReturn(customer);
+        CustomerPage page = customerService.searchCustomers(new CustomerSearchCriteria("Riga", null, null, null), null, 1);
+        assertEquals(Collections.singletonList(customer), page.getCustomers());
+        assertEquals(1L, page.getNextCursor());
+    }
+
+    @Test
+    void testSearchCustomers_LastPage_NoCursor() {
+        when(customerRepository.findPageAfterId(any(), eq(5L), eq(11))).thenReturn(Collections.singletonList(customerDAO));
+        when(customerMapper.daoToCustomer(customerDAO)).thenReturn(customer);
+        CustomerPage page = customerService.searchCustomers(new CustomerSearchCriteria(), 5L, 10);
+        assertEquals(1, page.getCustomers().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testGetChangesSince_MergesChangesAndTombstonesInOrder() {
+        CustomerDAO first = createCustomerDAO(createAddressDAO());
+        first.setUpdatedAt(Instant.ofEpochMilli(1000));
+        CustomerDAO third = createCustomerDAO(createAddressDAO());
+        third.setId(3L);
+        third.setUpdatedAt(Instant.ofEpochMilli(3000));
+        when(customerRepository.findChangedPageAfter(eq(Instant.ofEpochMilli(500)), eq(7L), any(), eq(PageRequest.of(0, 3))))
+                .thenReturn(Arrays.asList(first, third));
+        when(tombstoneRepository.findPageAfter(eq(Instant.ofEpochMilli(500)), eq(7L), any(), eq(PageRequest.of(0, 3))))
+                .thenReturn(Collections.singletonList(new CustomerTombstoneDAO(2L, Instant.ofEpochMilli(2000))));
+        when(customerMapper.daoToCustomer(first)).thenReturn(customer);
+        CustomerChanges changes = customerService.getChangesSince("500-7", 2);
+        assertEquals(Collections.singletonList(customer), changes.getChanged());
+        assertEquals(Collections.singletonList(2L), changes.getDeletedIds());
+        assertEquals("2000-2", changes.getNextToken());
+        assertTrue(changes.isHasMore());
+    }
+
+    @Test
+    void testGetChangesSince_NoToken_StartsFromEpochAndKeepsSafetyLag() {
+        when(customerRepository.findChangedPageAfter(eq(Instant.EPOCH), eq(0L), any(), any())).thenReturn(Collections.emptyList());
+        when(tombstoneRepository.findPageAfter(eq(Instant.EPOCH), eq(0L), any(), any())).thenReturn(Collections.emptyList());
+        long before = System.currentTimeMillis();
+        CustomerChanges changes = customerService.getChangesSince(null, 10);
+        assertTrue(changes.getChanged().isEmpty());
+        assertFalse(changes.isHasMore());
+        assertEquals("0-0", changes.getNextToken());
+        verify(customerRepository).findChangedPageAfter(eq(Instant.EPOCH), eq(0L),
+                argThat(until -> until.toEpochMilli() <= before - 5000 + 1000), any());
+    }
+
+    @Test
+    void testGetChangesSince_InvalidToken_Throws() {
+        assertThrows(InvalidSyncTokenException.class, () -> customerService.getChangesSince("abc", 10));
+        verify(customerRepository, times(0)).findChangedPageAfter(any(), any(), any(), any());
+    }
+
+    @Test
+    void testFindCustomersByIds_ReportsMissingIdsInRequestOrder() {
+        when(customerRepository.findViewsByIds(any())).thenReturn(Collections.singletonList(createCustomerView()));
+        CustomersById result = customerService.findCustomersByIds(Arrays.asList(99L, 1L, 99L));
+        assertEquals(Collections.singleton(1L), result.getCustomers().keySet());
+        assertEquals("email@email.com", result.getCustomers().get(1L).getEmail());
+        assertEquals(Collections.singletonList(99L), result.getMissingIds());
+        verify(customerRepository, times(1)).findViewsByIds(new LinkedHashSet<>(Arrays.asList(99L, 1L)));
     }
 
     @Test
     void testSaveCustomer_Successful() {
         when(customerMapper.customerToDAO(customer)).thenReturn(customerDAO);
-        when(customerRepository.save(customerDAO)).thenReturn(customerDAO);
+        when(customerRepository.saveAndFlush(customerDAO)).thenReturn(customerDAO);
         when(customerMapper.daoToCustomer(customerDAO)).thenReturn(customer);
         Customer savedCustomer = customerService.saveCustomer(customer);
         assertNotNull(savedCustomer);
         assertEquals(customer, savedCustomer);
         verify(customerMapper, times(1)).customerToDAO(customer);
-        verify(customerRepository, times(1)).save(customerDAO);
+        verify(customerRepository, times(1)).saveAndFlush(customerDAO);
         verify(customerMapper, times(1)).daoToCustomer(customerDAO);
+        verify(emailIndex, times(1)).add(customerDAO.getEmail());
     }
 
     @Test
     void testSaveCustomer_Unsuccessful() {
         when(customerMapper.customerToDAO(customer)).thenReturn(customerDAO);
-        when(customerRepository.save(customerDAO)).thenReturn(null);
+        when(customerRepository.saveAndFlush(customerDAO)).thenReturn(null);
         Customer savedCustomer = customerService.saveCustomer(customer);
         assertNull(savedCustomer);
         verify(customerMapper, times(1)).customerToDAO(customer);
-        verify(customerRepository, times(1)).save(customerDAO);
+        verify(customerRepository, times(1)).saveAndFlush(customerDAO);
         verify(customerMapper, times(0)).daoToCustomer(any());
     }
 
+    @Test
+    void testSaveCustomer_DuplicateEmail_ThrowsEmailAlreadyExists() {
+        when(customerMapper.customerToDAO(customer)).thenReturn(customerDAO);
+        when(customerRepository.saveAndFlush(customerDAO)).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", new SQLException(), "email")));
+        EmailAlreadyExistsException exception = assertThrows(EmailAlreadyExistsException.class,
+                () -> customerService.saveCustomer(customer));
+        assertEquals(customerDAO.getEmail(), exception.getEmail());
+        verify(emailIndex, times(0)).add(any());
+    }
+
+    @Test
+    void testSaveCustomer_DuplicateEmailOnH2_ThrowsEmailAlreadyExists() {
+        when(customerMapper.customerToDAO(customer)).thenReturn(customerDAO);
+        when(customerRepository.saveAndFlush(customerDAO)).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", new SQLException(),
+                        "\"customerdb.CONSTRAINT_INDEX_2 ON customerdb.customer(email NULLS FIRST) VALUES ( /* 1 */ 'a' )\"")));
+        assertThrows(EmailAlreadyExistsException.class, () -> customerService.saveCustomer(customer));
+    }
+
+    @Test
+    void testSaveCustomer_OtherConstraint_RethrowsDataIntegrityViolation() {
+        when(customerMapper.customerToDAO(customer)).thenReturn(customerDAO);
+        when(customerRepository.saveAndFlush(customerDAO)).thenThrow(new DataIntegrityViolationException("foreign key",
+                new ConstraintViolationException("foreign key", new SQLException(), "customer_ibfk_1")));
+        assertThrows(DataIntegrityViolationException.class, () -> customerService.saveCustomer(customer));
+    }
+
+    @Test
+    void testSaveCustomers_MixedEntries_ResultPerEntry() {
+        Customer invalidCustomer = new Customer();
+        Customer existingCustomer = new Customer(null, "existing@email.com", "password1", "name1", "lastName1", address, null);
+        @SuppressWarnings("unchecked")
+        ConstraintViolation<Customer> violation = mock(ConstraintViolation.class);
+        when(violation.getMessage()).thenReturn("Email cannot be null or blank");
+        when(validator.validate(any(Customer.class))).thenAnswer(invocation -> invocation.getArgument(0) == invalidCustomer
+                ? Collections.singleton(violation)
+                : Collections.emptySet());
+        when(emailIndex.mightContain(any())).thenReturn(true);
+        when(customerRepository.findExistingEmails(any())).thenReturn(Collections.singletonList("existing@email.com"));
+        when(customerMapper.customerToDAO(customer)).thenReturn(customerDAO);
+        when(customerRepository.saveAll(any())).thenReturn(Collections.singletonList(customerDAO));
+        when(customerMapper.daoToCustomer(customerDAO)).thenReturn(customer);
+
+        List<BulkSaveResult> results = customerService.saveCustomers(
+                Arrays.asList(customer, invalidCustomer, customer, existingCustomer, null));
+
+        assertEquals(5, results.size());
+        assertEquals(201, results.get(0).getStatus());
+        assertEquals(customer, results.get(0).getCustomer());
+        assertEquals(400, results.get(1).getStatus());
+        assertTrue(results.get(1).getError().contains("Email cannot be null or blank"));
+        assertEquals(400, results.get(2).getStatus());
+        assertTrue(results.get(2).getError().contains("repeated in the request"));
+        assertEquals(400, results.get(3).getStatus());
+        assertTrue(results.get(3).getError().contains("already registered"));
+        assertEquals(400, results.get(4).getStatus());
+        assertEquals("Sorry, the entry must not be null.", results.get(4).getError());
+        verify(customerRepository, times(1)).findExistingEmails(any());
+        verify(emailIndex, times(1)).add(customerDAO.getEmail());
+        verify(customerMetrics, times(2)).duplicateEmail();
+        verify(customerRepository, times(1)).saveAll(any());
+        verify(customerRepository, times(1)).flush();
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void testSaveCustomers_EmailRegisteredConcurrently_RetriesChunkOneByOne() {
+        Customer taken = new Customer(null, "taken@email.com", "password1", "name1", "lastName1", address, null);
+        CustomerDAO takenDAO = new CustomerDAO(2L, "taken@email.com", "password1", "name1", "lastName1", addressDAO, 0L, null);
+        when(customerMapper.customerToDAO(customer)).thenReturn(customerDAO);
+        when(customerMapper.customerToDAO(taken)).thenReturn(takenDAO);
+        when(customerRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<CustomerDAO> chunk = invocation.getArgument(0);
+            if (chunk.contains(takenDAO)) {
+                throw new DataIntegrityViolationException("duplicate",
+                        new ConstraintViolationException("duplicate", new SQLException(), "email"));
+            }
+            return new ArrayList<>(chunk);
+        });
+        when(customerMapper.daoToCustomer(customerDAO)).thenReturn(customer);
+
+        List<BulkSaveResult> results = customerService.saveCustomers(Arrays.asList(customer, taken));
+
+        assertEquals(201, results.get(0).getStatus());
+        assertEquals(400, results.get(1).getStatus());
+        assertTrue(results.get(1).getError().contains("already registered"));
+        verify(customerRepository, times(3)).saveAll(any());
+        verify(customerMetrics, times(1)).duplicateEmail();
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void testSaveCustomers_OtherConstraintViolation_Rethrows() {
+        when(customerMapper.customerToDAO(customer)).thenReturn(customerDAO);
+        when(customerRepository.saveAll(any())).thenThrow(new DataIntegrityViolationException("foreign key",
+                new ConstraintViolationException("foreign key", new SQLException(), "customer_ibfk_1")));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> customerService.saveCustomers(Collections.singletonList(customer)));
+        verify(customerRepository, times(1)).saveAll(any());
+    }
+
+    @Test
+    void testSaveCustomers_MoreThanBatchSize_SavedInChunks() {
+        ReflectionTestUtils.setField(customerService, "batchSize", 2);
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            customers.add(new Customer(null, "bulk" + i + "@email.com", "password1", "name1", "lastName1", address, null));
+        }
+        when(customerMapper.customerToDAO(any())).thenReturn(customerDAO);
+        when(customerRepository.saveAll(any())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(0)));
+        when(customerMapper.daoToCustomer(customerDAO)).thenReturn(customer);
+
+        List<BulkSaveResult> results = customerService.saveCustomers(customers);
+
+        assertEquals(5, results.size());
+        results.forEach(result -> assertEquals(201, result.getStatus()));
+        verify(customerRepository, times(0)).findExistingEmails(any());
+        verify(customerRepository, times(3)).saveAll(any());
+        verify(entityManager, times(3)).clear();
+        verify(transactionManager, times(3)).commit(any());
+    }
+
     @Test
     void testEditCustomerById_CustomerFound_Successful() {
         when(customerRepository.findById(1L)).thenReturn(Optional.of(customerDAO));
-        when(addressMapper.addressToDAO(updatedAddress)).thenReturn(new AddressDAO());
-        when(customerRepository.save(any(CustomerDAO.class))).thenReturn(customerDAO);
+        when(customerRepository.saveAndFlush(any(CustomerDAO.class))).thenReturn(customerDAO);
         when(customerMapper.daoToCustomer(customerDAO)).thenReturn(updatedCustomer);
         Customer result = customerService.editCustomerById(1L, updatedCustomer);
         assertNotNull(result);
         assertEquals(updatedCustomer, result);
         verify(customerRepository, times(1)).findById(1L);
-        verify(customerRepository, times(1)).save(any(CustomerDAO.class));
-        verify(addressMapper, times(1)).addressToDAO(updatedAddress);
+        verify(customerRepository, times(1)).saveAndFlush(any(CustomerDAO.class));
+        verify(customerMapper, times(1)).updateCustomerDAO(updatedCustomer, customerDAO);
         verify(customerMapper, times(1)).daoToCustomer(customerDAO);
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) ->
+                ((CustomerChangeEvent) event).getType() == CustomerChangeEvent.Type.UPDATED
+                        && ((CustomerChangeEvent) event).getCustomer() == updatedCustomer));
+    }
+
+    @Test
+    void testEditCustomerById_StaleVersion_ThrowsWithoutSaving() {
+        updatedCustomer.setVersion(5L);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customerDAO));
+        assertThrows(OptimisticLockingFailureException.class, () -> customerService.editCustomerById(1L, updatedCustomer));
+        verify(customerMapper, times(0)).updateCustomerDAO(any(), any());
+        verify(customerRepository, times(0)).saveAndFlush(any());
+    }
+
+    @Test
+    void testEditCustomerById_CurrentVersion_Saves() {
+        updatedCustomer.setVersion(0L);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customerDAO));
+        when(customerRepository.saveAndFlush(customerDAO)).thenReturn(customerDAO);
+        when(customerMapper.daoToCustomer(customerDAO)).thenReturn(updatedCustomer);
+        assertEquals(updatedCustomer, customerService.editCustomerById(1L, updatedCustomer));
+    }
+
+    @Test
+    void testEditCustomerById_AddressChanged_TouchesCustomer() {
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customerDAO));
+        when(addressMapper.daoToAddress(customerDAO.getAddressDAO())).thenReturn(address, updatedAddress);
+        when(customerRepository.saveAndFlush(customerDAO)).thenReturn(customerDAO);
+        customerService.editCustomerById(1L, updatedCustomer);
+        assertNotNull(customerDAO.getUpdatedAt());
+    }
+
+    @Test
+    void testEditCustomerById_AddressUnchanged_DoesNotTouchCustomer() {
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customerDAO));
+        when(addressMapper.daoToAddress(customerDAO.getAddressDAO())).thenReturn(address);
+        when(customerRepository.saveAndFlush(customerDAO)).thenReturn(customerDAO);
+        customerService.editCustomerById(1L, updatedCustomer);
+        assertNull(customerDAO.getUpdatedAt());
     }
 
     @Test
@@ -145,46 +486,151 @@ public class CustomerServiceImplTest {
         verify(customerRepository, times(1)).findById(1L);
     }
 
+    @Test
+    void testPatchCustomerById_CustomerFound_Successful() {
+        Customer patch = new Customer();
+        patch.setAddress(new Address(null, "12345678", null, null, null));
+        when(validator.validate(patch)).thenReturn(Collections.emptySet());
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customerDAO));
+        when(customerRepository.saveAndFlush(customerDAO)).thenReturn(customerDAO);
+        when(customerMapper.daoToCustomer(customerDAO)).thenReturn(updatedCustomer);
+        Customer result = customerService.patchCustomerById(1L, patch);
+        assertEquals(updatedCustomer, result);
+        verify(customerMapper, times(1)).patchCustomerDAO(patch, customerDAO);
+        verify(emailIndex, times(0)).add(any());
+    }
+
+    @Test
+    void testPatchCustomerById_CustomerNotFound() {
+        Customer patch = new Customer();
+        when(validator.validate(patch)).thenReturn(Collections.emptySet());
+        when(customerRepository.findById(99L)).thenReturn(Optional.empty());
+        assertNull(customerService.patchCustomerById(99L, patch));
+        verify(customerRepository, times(0)).saveAndFlush(any());
+    }
+
+    @Test
+    void testPatchCustomerById_InvalidField_ThrowsAndSkipsLookup() {
+        Customer patch = new Customer();
+        patch.setEmail("not-an-email");
+        ConstraintViolation<Customer> invalidEmail = mock(ConstraintViolation.class);
+        ConstraintViolation<Customer> missingPassword = mock(ConstraintViolation.class);
+        when(invalidEmail.getInvalidValue()).thenReturn("not-an-email");
+        when(missingPassword.getInvalidValue()).thenReturn(null);
+        when(validator.validate(patch)).thenReturn(new HashSet<>(Arrays.asList(invalidEmail, missingPassword)));
+        javax.validation.ConstraintViolationException exception = assertThrows(
+                javax.validation.ConstraintViolationException.class,
+                () -> customerService.patchCustomerById(1L, patch));
+        assertEquals(Collections.singleton(invalidEmail), exception.getConstraintViolations());
+        verify(customerRepository, times(0)).findById(any());
+    }
+
     @Test
     void testDeleteCustomerById_ExistingCustomer_Successful() {
-        when(customerRepository.existsById(1L)).thenReturn(true);
+        when(customerRepository.findCustomerAddressIds(Collections.singletonList(1L)))
+                .thenReturn(Collections.singletonList(new CustomerAddressId(1L, 5L)));
+        when(customerRepository.deleteCustomersByIds(Collections.singletonList(1L))).thenReturn(1);
         boolean isDeleted = customerService.deleteCustomerById(1L);
         assertTrue(isDeleted);
-        verify(customerRepository, times(1)).deleteById(1L);
+        verify(addressRepository, times(1)).deleteAddressesByIds(Collections.singletonList(5L));
+        verify(customerRepository, times(0)).findById(any());
+        verify(customerRepository, times(0)).existsById(any());
     }
 
     @Test
     void testDeleteCustomerById_NonExistingCustomer_Unsuccessful() {
-        when(customerRepository.existsById(99L)).thenReturn(false);
+        when(customerRepository.findCustomerAddressIds(Collections.singletonList(99L)))
+                .thenReturn(Collections.emptyList());
         boolean isDeleted = customerService.deleteCustomerById(99L);
         assertFalse(isDeleted);
-        verify(customerRepository, times(0)).deleteById(99L);
+        verify(customerRepository, times(0)).deleteCustomersByIds(any());
+        verify(addressRepository, times(0)).deleteAddressesByIds(any());
+    }
+
+    @Test
+    void testDeleteCustomersByIds_SomeExisting_ReturnsDeletedCount() {
+        when(customerRepository.findCustomerAddressIds(new LinkedHashSet<>(Arrays.asList(1L, 2L, 99L))))
+                .thenReturn(Arrays.asList(new CustomerAddressId(1L, 5L), new CustomerAddressId(2L, 6L)));
+        when(customerRepository.deleteCustomersByIds(Arrays.asList(1L, 2L))).thenReturn(2);
+        int deleted = customerService.deleteCustomersByIds(Arrays.asList(1L, 2L, 2L, 99L));
+        assertEquals(2, deleted);
+        verify(addressRepository, times(1)).deleteAddressesByIds(Arrays.asList(5L, 6L));
+        verify(suggestIndex, times(1)).removeAll(Arrays.asList(1L, 2L));
+        verify(tombstoneRepository, times(1)).insertForExistingCustomers(eq(Arrays.asList(1L, 2L)), any());
+        verify(eventPublisher, times(2)).publishEvent(argThat((Object event) ->
+                ((CustomerChangeEvent) event).getType() == CustomerChangeEvent.Type.DELETED
+                        && ((CustomerChangeEvent) event).getCustomerId() != 99L));
     }
 
     @Test
     void testIsEmailExisting_EmailExists() {
+        when(emailIndex.mightContain("existingEmail@email.com")).thenReturn(true);
         when(customerRepository.existsByEmail("existingEmail@email.com")).thenReturn(true);
         boolean result = customerService.isEmailExisting("existingEmail@email.com");
         assertTrue(result);
+        verify(emailIndex, times(1)).recordDatabaseResult(true);
     }
 
     @Test
     void testIsEmailExisting_EmailDoesNotExist() {
+        when(emailIndex.mightContain("nonexisting@email.com")).thenReturn(true);
         when(customerRepository.existsByEmail("nonexisting@email.com")).thenReturn(false);
         boolean result = customerService.isEmailExisting("nonexisting@email.com");
         assertFalse(result);
+        verify(emailIndex, times(1)).recordDatabaseResult(false);
+    }
+
+    @Test
+    void testIsEmailExisting_PrimaryReadsRequired_DoesNotJoinRunningLookup() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(emailIndex.mightContain("email@email.com")).thenReturn(true);
+        when(customerRepository.existsByEmail("email@email.com")).thenAnswer(invocation -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return false;
+        }).thenReturn(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> replicaLookup = executor.submit(() -> customerService.isEmailExisting("email@email.com"));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            boolean previous = PrimaryReads.require();
+            try {
+                assertTrue(customerService.isEmailExisting("email@email.com"));
+            } finally {
+                PrimaryReads.restore(previous);
+            }
+            release.countDown();
+            assertFalse(replicaLookup.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(customerRepository, times(2)).existsByEmail("email@email.com");
+    }
+
+    @Test
+    void testIsEmailExisting_RuledOutByIndex_NoDatabaseCall() {
+        when(emailIndex.mightContain("new@email.com")).thenReturn(false);
+        boolean result = customerService.isEmailExisting("new@email.com");
+        assertFalse(result);
+        verify(customerRepository, times(0)).existsByEmail(any());
     }
 
     private CustomerDAO createCustomerDAO(AddressDAO addressDAO) {
-        return new CustomerDAO(1L, "email@email.com", "password1", "name1", "lastName1", addressDAO);
+        return new CustomerDAO(1L, "email@email.com", "password1", "name1", "lastName1", addressDAO, 0L, null);
+    }
+
+    private CustomerView createCustomerView() {
+        return new CustomerView(1L, "email@email.com", "password1", "name1", "lastName1",
+                1L, "12345678", "Riga", "Riga", "1001", 0L);
     }
 
     private AddressDAO createAddressDAO() {
-        return new AddressDAO(1L, "12345678", "Riga", "Riga", "1001");
+        return new AddressDAO(1L, "12345678", "Riga", "Riga", "1001", 0L, null);
     }
 
     private Customer createCustomer(Address address) {
-        return new Customer(1L, "email@email.com", "password1", "name1", "lastName1", address);
+        return new Customer(1L, "email@email.com", "password1", "name1", "lastName1", address, 0L);
     }
 
     private Address createAddress() {
@@ -192,13 +638,20 @@ public class CustomerServiceImplTest {
     }
 
     private Customer createUpdatedCustomer(Address updatedAddress) {
-        return new Customer(1L, "updatedEmail2@email.com", "updatedPassword", "updatedName", "UpdatedLastName", updatedAddress);
+        return new Customer(1L, "updatedEmail2@email.com", "updatedPassword", "updatedName", "UpdatedLastName", updatedAddress, null);
     }
 
     private Address createUpdatedAddress() {
         return new Address(1L, "464748494", "updated country", "updated city", "6666");
     }
 
+    private List<CustomerView> createCustomerViewList(CustomerView customerView) {
+        List<CustomerView> list = new ArrayList<>();
+        list.add(customerView);
+        list.add(customerView);
+        return list;
+    }
+
     private List<CustomerDAO> createCustomerDAOList(CustomerDAO customerDAO) {
         List<CustomerDAO> list = new ArrayList<>();
         list.add(customerDAO);
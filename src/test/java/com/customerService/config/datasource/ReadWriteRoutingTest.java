@@ -0,0 +1,170 @@
+package com.customerService.config.datasource;
+
+import com.customerService.business.service.CustomerService;
+import com.customerService.model.Address;
+import com.customerService.model.Customer;
+import com.customerService.web.routing.ReadYourWritesFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.servlet.http.Cookie;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A second in-memory H2 database stands in for the replica. It holds a customer the primary does not have,
+ * so where a read went shows in its result.
+ */
+@SpringBootTest(properties = {
+        "customer.datasource.replicas[0].jdbc-url=" + ReadWriteRoutingTest.REPLICA_URL + ";IFEXISTS=TRUE;INIT=SET SCHEMA customerdb",
+        "customer.datasource.replicas[0].username=sa",
+        "customer.datasource.replicas[0].connection-timeout=250",
+        "customer.datasource.health-check-interval-ms=600000"})
+@AutoConfigureMockMvc
+public class ReadWriteRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replicadb;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final long REPLICA_ONLY_ID = 900000L;
+    private static final String URL = "/api/v1/customer";
+
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private ReadReplicas readReplicas;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Connection replicaKeepAlive;
+
+    @BeforeEach
+    public void startReplica() throws SQLException {
+        replicaKeepAlive = DriverManager.getConnection(
+                REPLICA_URL + ";INIT=CREATE SCHEMA IF NOT EXISTS customerdb\\;SET SCHEMA customerdb", "sa", "");
+        Flyway.configure()
+                .dataSource(REPLICA_URL + ";INIT=CREATE SCHEMA IF NOT EXISTS customerdb\\;SET SCHEMA customerdb", "sa", "")
+                .load()
+                .migrate();
+        try (Statement statement = replicaKeepAlive.createStatement()) {
+            statement.execute("MERGE INTO customerdb.address (id, phone_number, country, city, postal_code) " +
+                    "KEY (id) VALUES (" + REPLICA_ONLY_ID + ", '12345678', 'Latvia', 'Riga', 'LV-1001')");
+            statement.execute("MERGE INTO customerdb.customer (id, email, password, first_name, last_name, address_id) " +
+                    "KEY (id) VALUES (" + REPLICA_ONLY_ID + ", 'replica@example.com', 'password', 'Replica', 'Only', "
+                    + REPLICA_ONLY_ID + ")");
+        }
+        readReplicas.getReplicas().get(0).getDataSource().getHikariPoolMXBean().softEvictConnections();
+        readReplicas.checkHealth();
+    }
+
+    @AfterEach
+    public void stopReplica() throws SQLException {
+        if (!replicaKeepAlive.isClosed()) {
+            replicaKeepAlive.close();
+        }
+    }
+
+    @Test
+    void testReadOnlyTransaction_ReadsFromReplica() {
+        assertTrue(readReplicas.getReplicas().get(0).isHealthy());
+        assertTrue(customerService.findCustomersByIds(Collections.singletonList(REPLICA_ONLY_ID))
+                .getCustomers().containsKey(REPLICA_ONLY_ID));
+    }
+
+    @Test
+    void testPrimaryReadsRequired_ReadsFromPrimary() {
+        boolean previous = PrimaryReads.require();
+        try {
+            assertTrue(customerService.findCustomersByIds(Collections.singletonList(REPLICA_ONLY_ID))
+                    .getMissingIds().contains(REPLICA_ONLY_ID));
+        } finally {
+            PrimaryReads.restore(previous);
+        }
+    }
+
+    @Test
+    void testWriteTransaction_UsesPrimary() {
+        assertFalse(customerService.deleteCustomerById(REPLICA_ONLY_ID));
+    }
+
+    @Test
+    void testReplicaDown_FallsBackToPrimary() throws SQLException {
+        try (Statement statement = replicaKeepAlive.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+        readReplicas.getReplicas().get(0).getDataSource().getHikariPoolMXBean().softEvictConnections();
+        readReplicas.checkHealth();
+
+        assertFalse(readReplicas.getReplicas().get(0).isHealthy());
+        assertTrue(customerService.findCustomersByIds(Collections.singletonList(REPLICA_ONLY_ID))
+                .getMissingIds().contains(REPLICA_ONLY_ID));
+    }
+
+    @Test
+    void testFindCustomerById_ReplicaBehind_CachesPrimaryRow() throws SQLException {
+        Customer saved = customerService.saveCustomer(new Customer(null, "current@example.com", "password", "Current",
+                "Row", new Address(null, "12345678", "Latvia", "Riga", "LV-1001"), null));
+        Long addressId = saved.getAddress().getId();
+        try (Statement statement = replicaKeepAlive.createStatement()) {
+            statement.execute("MERGE INTO customerdb.address (id, phone_number, country, city, postal_code) " +
+                    "KEY (id) VALUES (" + addressId + ", '12345678', 'Latvia', 'Riga', 'LV-1001')");
+            statement.execute("MERGE INTO customerdb.customer (id, email, password, first_name, last_name, address_id) " +
+                    "KEY (id) VALUES (" + saved.getId() + ", 'old@example.com', 'password', 'Old', 'Row', " + addressId + ")");
+        }
+        try {
+            assertEquals("current@example.com", customerService.findCustomerById(saved.getId()).get().getEmail());
+            assertEquals("current@example.com", customerService.findCustomerById(saved.getId()).get().getEmail());
+        } finally {
+            customerService.deleteCustomerById(saved.getId());
+            try (Statement statement = replicaKeepAlive.createStatement()) {
+                statement.execute("DELETE FROM customerdb.customer WHERE id = " + saved.getId());
+                statement.execute("DELETE FROM customerdb.address WHERE id = " + addressId);
+            }
+        }
+    }
+
+    @Test
+    void testWriteSetsCookie_ReadsWithCookieFromPrimary() throws Exception {
+        Customer customer = new Customer(null, "routing@example.com", "password", "Routing", "Test",
+                new Address(null, "12345678", "Latvia", "Riga", "LV-1001"), null);
+        MvcResult result = mockMvc.perform(post(URL + "/save")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(customer)))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWritesFilter.COOKIE_NAME))
+                .andReturn();
+        Cookie primaryReads = result.getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        try {
+            mockMvc.perform(get(URL + "/byIds").param("ids", String.valueOf(REPLICA_ONLY_ID)).cookie(primaryReads))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.missingIds[0]").value(REPLICA_ONLY_ID));
+            mockMvc.perform(get(URL + "/byIds").param("ids", String.valueOf(REPLICA_ONLY_ID)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.customers." + REPLICA_ONLY_ID + ".email").value("replica@example.com"));
+        } finally {
+            long savedId = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+            customerService.deleteCustomerById(savedId);
+        }
+    }
+}
@@ -1,42 +1,66 @@
 package com.customerService.web.controller;
 
+import com.customerService.business.exceptions.EmailAlreadyExistsException;
+import com.customerService.business.exceptions.InvalidSyncTokenException;
+import com.customerService.business.metrics.CustomerMetrics;
 import com.customerService.business.repository.model.AddressDAO;
 import com.customerService.business.repository.model.CustomerDAO;
 import com.customerService.business.service.CustomerService;
 import com.customerService.model.Address;
+import com.customerService.model.BulkSaveResult;
 import com.customerService.model.Customer;
+import com.customerService.model.CustomerChanges;
+import com.customerService.model.CustomerPage;
+import com.customerService.model.CustomerSearchCriteria;
+import com.customerService.model.CustomerSuggestion;
+import com.customerService.model.CustomersById;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.context.request.WebRequest;
 
+import javax.validation.ConstraintViolationException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -50,12 +74,25 @@ public class CustomerControllerTest {
     private ObjectMapper objectMapper;
     @Autowired
     private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
     public static final String URL = "/api/v1/customer";
     public static final String URL1 = URL + "/allCustomers";
     public static final String URL2 = URL + "/getById";
     public static final String URL3 = URL + "/save";
     public static final String URL4 = URL + "/edit";
     public static final String URL5 = URL + "/delete";
+    public static final String URL6 = URL + "/page";
+    public static final String URL7 = URL + "/export";
+    public static final String URL8 = URL + "/saveAll";
+    public static final String URL9 = URL + "/deleteAll";
+    public static final String URL10 = URL + "/byIds";
+    public static final String URL11 = URL + "/search";
+    public static final String URL12 = URL + "/suggest";
+    public static final String URL13 = URL + "/changes";
+    public static final String URL14 = URL + "/stream";
+    public static final String URL15 = URL + "/async/getById";
+    public static final String URL16 = URL + "/async/byIds";
 
     private List<Customer> customerList;
     private Customer customer;
@@ -94,6 +131,152 @@ public class CustomerControllerTest {
         verify(customerService, times(1)).getAllCustomers();
     }
 
+    @Test
+    void testGetCustomersPage_Successful() throws Exception {
+        when(customerService.getCustomersPage(1L, 2)).thenReturn(new CustomerPage(customerList, 3L));
+        mockMvc.perform(get(URL6).param("cursor", "1").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.customers", hasSize(customerList.size())))
+                .andExpect(jsonPath("$.customers[0].id").value(customerList.get(0).getId()))
+                .andExpect(jsonPath("$.nextCursor").value(3L));
+        verify(customerService, times(1)).getCustomersPage(1L, 2);
+    }
+
+    @Test
+    void testGetCustomersPage_InvalidSize_Unsuccessful() throws Exception {
+        mockMvc.perform(get(URL6).param("size", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("page size must be between")));
+        verify(customerService, times(0)).getCustomersPage(any(), anyInt());
+    }
+
+    @Test
+    void testGetCustomersByIds_Successful() throws Exception {
+        when(customerService.findCustomersByIds(Arrays.asList(1L, 99L))).thenReturn(
+                new CustomersById(Collections.singletonMap(1L, customer), Collections.singletonList(99L)));
+        mockMvc.perform(get(URL10).param("ids", "1,99"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers.1.email").value(customer.getEmail()))
+                .andExpect(jsonPath("$.missingIds[0]").value(99L));
+        verify(customerService, times(1)).findCustomersByIds(Arrays.asList(1L, 99L));
+    }
+
+    @Test
+    void testPostCustomersByIds_Successful() throws Exception {
+        when(customerService.findCustomersByIds(Arrays.asList(1L, 2L))).thenReturn(
+                new CustomersById(Collections.singletonMap(1L, customer), Collections.singletonList(2L)));
+        mockMvc.perform(post(URL10)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers.1.id").value(customer.getId()))
+                .andExpect(jsonPath("$.missingIds[0]").value(2L));
+    }
+
+    @Test
+    void testPostCustomersByIds_EmptyList_Unsuccessful() throws Exception {
+        mockMvc.perform(post(URL10)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("between 1 and 1000 ids")));
+        verify(customerService, times(0)).findCustomersByIds(any());
+    }
+
+    @Test
+    void testSearchCustomers_Successful() throws Exception {
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria("Latvia", "Riga", null, "Ber");
+        when(customerService.searchCustomers(criteria, 4L, 2)).thenReturn(new CustomerPage(customerList, 7L));
+        mockMvc.perform(get(URL11).param("country", "Latvia").param("city", "Riga").param("lastName", "Ber")
+                        .param("cursor", "4").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers", hasSize(customerList.size())))
+                .andExpect(jsonPath("$.nextCursor").value(7L));
+        verify(customerService, times(1)).searchCustomers(criteria, 4L, 2);
+    }
+
+    @Test
+    void testSearchCustomers_InvalidSize_Unsuccessful() throws Exception {
+        mockMvc.perform(get(URL11).param("city", "Riga").param("size", "501"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("page size must be between")));
+        verify(customerService, times(0)).searchCustomers(any(), any(), anyInt());
+    }
+
+    @Test
+    void testSuggestCustomers_Successful() throws Exception {
+        when(customerService.suggestCustomers("ann", 5)).thenReturn(Collections.singletonList(
+                new CustomerSuggestion(1L, "anna@example.com", "Anna", "Berzina")));
+        mockMvc.perform(get(URL12).param("q", " ann ").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[0].firstName").value("Anna"));
+        verify(customerService, times(1)).suggestCustomers("ann", 5);
+    }
+
+    @Test
+    void testSuggestCustomers_InvalidLimit_Unsuccessful() throws Exception {
+        mockMvc.perform(get(URL12).param("q", "ann").param("limit", "51"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("limit must be between 1 and 50")));
+        verify(customerService, times(0)).suggestCustomers(any(), anyInt());
+    }
+
+    @Test
+    void testGetChanges_Successful() throws Exception {
+        when(customerService.getChangesSince("1000-1", 100)).thenReturn(
+                new CustomerChanges(customerList, Collections.singletonList(5L), "2000-5", false));
+        mockMvc.perform(get(URL13).param("since", "1000-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed", hasSize(customerList.size())))
+                .andExpect(jsonPath("$.deletedIds[0]").value(5L))
+                .andExpect(jsonPath("$.nextToken").value("2000-5"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void testGetChanges_InvalidToken_BadRequest() throws Exception {
+        when(customerService.getChangesSince("abc", 100)).thenThrow(new InvalidSyncTokenException("abc", null));
+        mockMvc.perform(get(URL13).param("since", "abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Sorry, the sync token abc is invalid."));
+    }
+
+    @Test
+    void testStreamChanges_StartsEventStream() throws Exception {
+        mockMvc.perform(get(URL14).header("Last-Event-ID", "5"))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string("Content-Type", MediaType.TEXT_EVENT_STREAM_VALUE));
+    }
+
+    @Test
+    void testExportCustomers_Successful() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Customer> consumer = invocation.getArgument(0);
+            customerList.forEach(consumer);
+            return (long) customerList.size();
+        }).when(customerService).exportCustomers(any());
+        MvcResult mvcResult = mockMvc.perform(get(URL7))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String expectedLine = objectMapper.writeValueAsString(customer) + "\n";
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(expectedLine + expectedLine));
+        verify(customerService, times(1)).exportCustomers(any());
+    }
+
+    @Test
+    void testExportCustomers_OwnAsyncTimeout() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(get(URL7))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(3600000L, mvcResult.getRequest().getAsyncContext().getTimeout());
+    }
+
     @Test
     void testGetCustomerById_ExistingId_Successful() throws Exception {
         when(customerService.findCustomerById(1L)).thenReturn(Optional.of(customer));
@@ -103,10 +286,66 @@ public class CustomerControllerTest {
                 .andExpect(jsonPath("$.id").value(customer.getId()))
                 .andExpect(jsonPath("$.firstName").value(customer.getFirstName()))
                 .andExpect(jsonPath("$.email").value(customer.getEmail()))
-                .andExpect(jsonPath("$.address.city").value(customer.getAddress().getCity()));
+                .andExpect(jsonPath("$.address.city").value(customer.getAddress().getCity()))
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
         verify(customerService, times(1)).findCustomerById(1L);
     }
 
+    @Test
+    void testGetCustomerByIdAsync_ExistingId_Successful() throws Exception {
+        when(customerService.findCustomerById(1L)).thenReturn(Optional.of(customer));
+        MvcResult mvcResult = mockMvc.perform(get(URL15 + "/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(customer.getEmail()))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+        verify(customerService, times(1)).findCustomerById(1L);
+    }
+
+    @Test
+    void testGetCustomerByIdAsync_NonExistingId_NotFound() throws Exception {
+        when(customerService.findCustomerById(99L)).thenReturn(Optional.empty());
+        MvcResult mvcResult = mockMvc.perform(get(URL15 + "/99"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string("Message", "Customer not found with ID: 99"));
+    }
+
+    @Test
+    void testGetCustomersByIdsAsync_Successful() throws Exception {
+        when(customerService.findCustomersByIds(Arrays.asList(1L, 99L))).thenReturn(
+                new CustomersById(Collections.singletonMap(1L, customer), Collections.singletonList(99L)));
+        MvcResult mvcResult = mockMvc.perform(get(URL16).param("ids", "1,99"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers.1.email").value(customer.getEmail()))
+                .andExpect(jsonPath("$.missingIds[0]").value(99L));
+    }
+
+    @Test
+    void testGetCustomerById_MatchingIfNoneMatch_NotModified() throws Exception {
+        when(customerService.findCustomerById(1L)).thenReturn(Optional.of(customer));
+        mockMvc.perform(get(URL2 + "/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testGetCustomerById_StaleIfNoneMatch_ReturnsBody() throws Exception {
+        when(customerService.findCustomerById(1L)).thenReturn(Optional.of(customer));
+        mockMvc.perform(get(URL2 + "/1").header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(customer.getId()));
+    }
+
     @Test
     void testGetCustomerById_NonExistingId_UnSuccessful() throws Exception {
         when(customerService.findCustomerById(99L)).thenReturn(Optional.empty());
@@ -151,6 +390,7 @@ public class CustomerControllerTest {
 
     @Test
     void testSaveCustomer_EmailExists_Unsuccessful() throws Exception {
+        double duplicates = meterRegistry.counter(CustomerMetrics.DUPLICATE_EMAILS).count();
         when(customerService.isEmailExisting(customer.getEmail())).thenReturn(true);
         mockMvc.perform(post(URL3)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -159,12 +399,51 @@ public class CustomerControllerTest {
                 .andExpect(content().string(containsString("Sorry, the email " + customer.getEmail() + " is already registered.")));
         verify(customerService, times(1)).isEmailExisting(customer.getEmail());
         verify(customerService, times(0)).saveCustomer(any());
+        assertEquals(duplicates + 1, meterRegistry.counter(CustomerMetrics.DUPLICATE_EMAILS).count());
+    }
+
+    @Test
+    void testSaveCustomers_Successful() throws Exception {
+        List<BulkSaveResult> results = Arrays.asList(
+                new BulkSaveResult(0, 201, customer, null),
+                new BulkSaveResult(1, 400, null, "Sorry, the email email@email.com is repeated in the request."));
+        when(customerService.saveCustomers(any())).thenReturn(results);
+        mockMvc.perform(post(URL8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Arrays.asList(savedCustomer, savedCustomer))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].customer.id").value(customer.getId()))
+                .andExpect(jsonPath("$[1].status").value(400))
+                .andExpect(jsonPath("$[1].error").value(results.get(1).getError()));
+        verify(customerService, times(1)).saveCustomers(any());
+    }
+
+    @Test
+    void testSaveCustomers_EmptyList_Unsuccessful() throws Exception {
+        mockMvc.perform(post(URL8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("must contain between 1 and")));
+        verify(customerService, times(0)).saveCustomers(any());
+    }
+
+    @Test
+    void testSaveCustomer_EmailTakenConcurrently_Unsuccessful() throws Exception {
+        when(customerService.isEmailExisting(customer.getEmail())).thenReturn(false);
+        when(customerService.saveCustomer(any())).thenThrow(new EmailAlreadyExistsException(customer.getEmail(), null));
+        mockMvc.perform(post(URL3)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(customer)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Sorry, the email " + customer.getEmail() + " is already registered.")));
+        verify(customerService, times(1)).saveCustomer(any());
     }
 
     @Test
     void testEditCustomerById_Successful() throws Exception {
-        when(customerService.isCustomerPresent(1L)).thenReturn(true);
-        when(customerService.isEmailExisting(updatedCustomer.getEmail())).thenReturn(false);
         when(customerService.editCustomerById(eq(1L), any())).thenReturn(updatedCustomer);
         mockMvc.perform(put(URL4 + "/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -180,36 +459,67 @@ public class CustomerControllerTest {
                 .andExpect(jsonPath("$.address.city").value(updatedCustomer.getAddress().getCity()))
                 .andExpect(jsonPath("$.address.country").value(updatedCustomer.getAddress().getCountry()))
                 .andExpect(jsonPath("$.address.postalCode").value(updatedCustomer.getAddress().getPostalCode()));
-        verify(customerService, times(1)).isCustomerPresent(1L);
-        verify(customerService, times(1)).isEmailExisting(updatedCustomer.getEmail());
+        verify(customerService, times(0)).isCustomerPresent(any());
+        verify(customerService, times(0)).isEmailExisting(any());
         verify(customerService, times(1)).editCustomerById(eq(1L), any());
     }
 
+    @Test
+    void testEditCustomerById_IfMatch_PassesVersionToService() throws Exception {
+        when(customerService.editCustomerById(eq(1L), any())).thenReturn(updatedCustomer);
+        mockMvc.perform(put(URL4 + "/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedCustomer)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+        verify(customerService, times(1)).editCustomerById(eq(1L), argThat(edit -> Long.valueOf(3L).equals(edit.getVersion())));
+    }
+
+    @Test
+    void testEditCustomerById_StaleIfMatch_PreconditionFailed() throws Exception {
+        when(customerService.editCustomerById(eq(1L), any()))
+                .thenThrow(new OptimisticLockingFailureException("Customer 1 was changed"));
+        mockMvc.perform(put(URL4 + "/1")
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedCustomer)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(content().string(containsString("changed by another request")));
+    }
+
+    @Test
+    void testPatchCustomerById_WeakIfMatch_PreconditionFailed() throws Exception {
+        mockMvc.perform(patch(URL4 + "/1")
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Anna\"}"))
+                .andExpect(status().isPreconditionFailed());
+        verify(customerService, times(0)).patchCustomerById(anyLong(), any());
+    }
+
     @Test
     void testEditCustomerById_EmailExists() throws Exception {
-        when(customerService.isCustomerPresent(1L)).thenReturn(true);
-        when(customerService.isEmailExisting(updatedCustomer.getEmail())).thenReturn(true);
+        when(customerService.editCustomerById(eq(1L), any()))
+                .thenThrow(new EmailAlreadyExistsException(updatedCustomer.getEmail(), null));
         mockMvc.perform(put(URL4 + "/1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(updatedCustomer)))
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string(containsString("Sorry, the email " + updatedCustomer.getEmail() + " is already registered.")));
-        verify(customerService, times(1)).isCustomerPresent(1L);
-        verify(customerService, times(1)).isEmailExisting(updatedCustomer.getEmail());
-        verify(customerService, times(0)).editCustomerById(eq(1L), any());
+        verify(customerService, times(1)).editCustomerById(eq(1L), any());
     }
 
     @Test
     void testEditCustomerById_CustomerNotFound() throws Exception {
-        when(customerService.isCustomerPresent(99L)).thenReturn(false);
+        when(customerService.editCustomerById(eq(99L), any())).thenReturn(null);
         mockMvc.perform(put(URL4 + "/99")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(updatedCustomer)))
                 .andExpect(status().isNotFound())
                 .andExpect(content().string(containsString("Sorry, the customer id " + 99L + " does not exist.")));
-        verify(customerService, times(1)).isCustomerPresent(99L);
         verify(customerService, times(0)).isEmailExisting(any());
-        verify(customerService, times(0)).editCustomerById(any(), any());
+        verify(customerService, times(1)).editCustomerById(eq(99L), any());
     }
 
     @Test
@@ -243,19 +553,86 @@ public class CustomerControllerTest {
         verify(customerService, times(1)).deleteCustomerById(99L);
     }
 
+    @Test
+    void testDeleteCustomer_CustomerNotFound_Counted() throws Exception {
+        String uri = URL5 + "/{id}";
+        double notFound = meterRegistry.counter(CustomerMetrics.NOT_FOUND_RESPONSES, "uri", uri).count();
+        when(customerService.deleteCustomerById(99L)).thenReturn(false);
+        mockMvc.perform(delete(URL5 + "/99"))
+                .andExpect(status().isNotFound());
+        assertEquals(notFound + 1, meterRegistry.counter(CustomerMetrics.NOT_FOUND_RESPONSES, "uri", uri).count());
+        assertTrue(meterRegistry.get(CustomerMetrics.STATEMENTS_PER_REQUEST).tag("uri", uri).summary().count() > 0);
+    }
+
+    @Test
+    void testDeleteCustomers_Successful() throws Exception {
+        when(customerService.deleteCustomersByIds(Arrays.asList(1L, 2L))).thenReturn(2);
+        mockMvc.perform(delete(URL9)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,2]"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("2 Customer entries deleted")));
+        verify(customerService, times(1)).deleteCustomersByIds(Arrays.asList(1L, 2L));
+    }
+
+    @Test
+    void testDeleteCustomers_NoneFound() throws Exception {
+        when(customerService.deleteCustomersByIds(Arrays.asList(98L, 99L))).thenReturn(0);
+        mockMvc.perform(delete(URL9)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[98,99]"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string(containsString("Customers not found with IDs: [98, 99]")));
+    }
+
+    @Test
+    void testPatchCustomerById_Successful() throws Exception {
+        when(customerService.patchCustomerById(eq(1L), any())).thenReturn(updatedCustomer);
+        mockMvc.perform(patch(URL4 + "/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"address\":{\"phoneNumber\":\"12345678\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(updatedCustomer.getId()))
+                .andExpect(jsonPath("$.email").value(updatedCustomer.getEmail()));
+        verify(customerService, times(1)).patchCustomerById(eq(1L), argThat(patch ->
+                patch.getEmail() == null && "12345678".equals(patch.getAddress().getPhoneNumber())));
+    }
+
+    @Test
+    void testPatchCustomerById_CustomerNotFound() throws Exception {
+        when(customerService.patchCustomerById(eq(99L), any())).thenReturn(null);
+        mockMvc.perform(patch(URL4 + "/99")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Anna\"}"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string(containsString("Sorry, the customer id 99 does not exist.")));
+    }
+
+    @Test
+    void testPatchCustomerById_ValidationFailure() throws Exception {
+        when(customerService.patchCustomerById(eq(1L), any()))
+                .thenThrow(new ConstraintViolationException(Collections.emptySet()));
+        mockMvc.perform(patch(URL4 + "/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"not-an-email\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(HttpStatus.BAD_REQUEST.value()))
+                .andExpect(jsonPath("$.message").value("Validation failed"));
+    }
+
     private Customer createCustomer() {
         return new Customer(1L, "email@email.com", "password1", "name1", "lastName1",
-                new Address(1L, "12345678", "Riga", "Riga", "1001"));
+                new Address(1L, "12345678", "Riga", "Riga", "1001"), 3L);
     }
 
     private Customer createCustomerToSave() {
         return new Customer(null, "email@email.com", "password1", "name1", "lastName1",
-                new Address(null, "12345678", "Riga", "Riga", "1001"));
+                new Address(null, "12345678", "Riga", "Riga", "1001"), null);
     }
 
     private Customer createUpdatedCustomer() {
         return new Customer(1L, "updatedEmail2@email.com", "updatedPassword", "updatedName", "UpdatedLastName",
-                new Address(1L, "464748494", "updated country", "updated city", "6666"));
+                new Address(1L, "464748494", "updated country", "updated city", "6666"), 4L);
     }
 
     private List<Customer> createCustomerList(Customer customer) {
@@ -0,0 +1,203 @@
+package com.customerService.web.limit;
+
+import com.customerService.business.metrics.CustomerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrencyLimitFilterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(1000);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        LimitProperties properties = new LimitProperties();
+        properties.setReads(new LimitProperties.Concurrency(1, 1, 1, 2.0, 0.9));
+        properties.setWrites(new LimitProperties.Concurrency(1, 1, 1, 2.0, 0.9));
+        properties.setRetryAfterSeconds(2);
+        filter = new ConcurrencyLimitFilter(properties, new CustomerMetrics(meterRegistry), meterRegistry);
+    }
+
+    @Test
+    void testFilter_ReadLimitReached_RejectsWithRetryAfter() throws Exception {
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+        FilterChain chain = (request, response) -> nested.set(perform(request("GET", "/api/v1/customer/getById/2")));
+
+        MockHttpServletResponse outer = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/v1/customer/getById/1"), outer, chain);
+
+        assertEquals(200, outer.getStatus());
+        assertEquals(503, nested.get().getStatus());
+        assertEquals("2", nested.get().getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("Sorry, the service is overloaded, try again later.", nested.get().getContentAsString());
+        assertEquals(1.0, meterRegistry.get(CustomerMetrics.REJECTED_REQUESTS)
+                .tag("limit", ConcurrencyLimitFilter.READS).counter().count());
+        assertEquals(200, perform(request("GET", "/api/v1/customer/getById/2")).getStatus());
+    }
+
+    @Test
+    void testFilter_ReadsAndWritesHaveSeparateLimits() throws Exception {
+        AtomicReference<MockHttpServletResponse> write = new AtomicReference<>();
+        AtomicReference<MockHttpServletResponse> postLookup = new AtomicReference<>();
+        FilterChain chain = (request, response) -> {
+            write.set(perform(request("POST", "/api/v1/customer/save")));
+            postLookup.set(perform(request("POST", "/api/v1/customer/byIds")));
+        };
+
+        filter.doFilter(request("GET", "/api/v1/customer/getById/1"), new MockHttpServletResponse(), chain);
+
+        assertEquals(200, write.get().getStatus());
+        assertEquals(503, postLookup.get().getStatus());
+    }
+
+    @Test
+    void testFilter_StreamingAndNonApiPathsAreNotLimited() throws Exception {
+        AtomicReference<MockHttpServletResponse> stream = new AtomicReference<>();
+        AtomicReference<MockHttpServletResponse> health = new AtomicReference<>();
+        FilterChain chain = (request, response) -> {
+            stream.set(perform(request("GET", "/api/v1/customer/stream")));
+            health.set(perform(request("GET", "/actuator/health")));
+        };
+
+        filter.doFilter(request("GET", "/api/v1/customer/getById/1"), new MockHttpServletResponse(), chain);
+
+        assertEquals(200, stream.get().getStatus());
+        assertEquals(200, health.get().getStatus());
+    }
+
+    @Test
+    void testLimit_AdmitsUpToLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(new LimitProperties.Concurrency(2, 1, 10, 2.0, 0.5));
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        limit.release(FAST, false);
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void testFilter_FullTableReadsAreLimited() throws Exception {
+        AtomicReference<MockHttpServletResponse> allCustomers = new AtomicReference<>();
+        FilterChain chain = (request, response) -> allCustomers.set(perform(request("GET", "/api/v1/customer/allCustomers")));
+
+        filter.doFilter(request("GET", "/api/v1/customer/getById/1"), new MockHttpServletResponse(), chain);
+
+        assertEquals(503, allCustomers.get().getStatus());
+    }
+
+    @Test
+    void testLimit_SlowOrFailedWindows_BackOffToMinimum() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(new LimitProperties.Concurrency(16, 2, 32, 2.0, 0.5));
+        complete(limit, 16, FAST);
+        assertEquals(16, limit.getLimit());
+        complete(limit, 16, SLOW);
+        assertEquals(8, limit.getLimit());
+        for (int i = 0; i < AdaptiveConcurrencyLimit.MIN_WINDOW_SIZE; i++) {
+            limit.tryAcquire();
+            limit.release(FAST, true);
+        }
+        assertEquals(4, limit.getLimit());
+        for (int i = 0; i < 5; i++) {
+            complete(limit, AdaptiveConcurrencyLimit.MIN_WINDOW_SIZE, SLOW);
+        }
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    void testLimit_BurstOfSlowRequests_BacksOffOncePerWindow() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(new LimitProperties.Concurrency(20, 2, 200, 2.0, 0.9));
+        complete(limit, 20, FAST);
+        complete(limit, 20, SLOW);
+        assertEquals(18, limit.getLimit());
+    }
+
+    @Test
+    void testLimit_SteadyLatency_IsTheBaseline() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(new LimitProperties.Concurrency(20, 2, 200, 2.0, 0.5));
+        complete(limit, 1000, SLOW);
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    void testLimit_UnsampledRequests_OnlyFailuresCount() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(new LimitProperties.Concurrency(20, 2, 200, 2.0, 0.5));
+        complete(limit, 20, FAST);
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.releaseUnsampled(false);
+        }
+        assertEquals(20, limit.getLimit());
+        for (int i = 0; i < 20; i++) {
+            limit.tryAcquire();
+            limit.releaseUnsampled(true);
+        }
+        assertEquals(10, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void testLimit_FastRequestsUnderLoad_GrowToMaximum() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(new LimitProperties.Concurrency(4, 1, 8, 2.0, 0.5));
+        for (int i = 0; i < 1000; i++) {
+            int admitted = 0;
+            while (limit.tryAcquire()) {
+                admitted++;
+            }
+            for (int j = 0; j < admitted; j++) {
+                limit.release(FAST, false);
+            }
+        }
+        assertEquals(8, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void testLimit_FastRequestsWhileMostlyIdle_DoNotGrow() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(new LimitProperties.Concurrency(10, 1, 100, 2.0, 0.5));
+        for (int i = 0; i < 1000; i++) {
+            limit.tryAcquire();
+            limit.release(FAST, false);
+        }
+        assertEquals(10, limit.getLimit());
+    }
+
+    private static void complete(AdaptiveConcurrencyLimit limit, int requests, long latencyNanos) {
+        for (int i = 0; i < requests; i++) {
+            limit.tryAcquire();
+            limit.release(latencyNanos, false);
+        }
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+}
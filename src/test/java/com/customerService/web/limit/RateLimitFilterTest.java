@@ -0,0 +1,142 @@
+package com.customerService.web.limit;
+
+import com.customerService.business.metrics.CustomerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RateLimitFilterTest {
+
+    private static final String PROXY = "10.0.0.1";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        LimitProperties properties = new LimitProperties();
+        properties.getRateLimit().setEnabled(true);
+        properties.getRateLimit().setCapacity(2);
+        properties.getRateLimit().setRefillPerSecond(0.5);
+        properties.getRateLimit().setTrustedProxies(Collections.singletonList(PROXY));
+        filter = new RateLimitFilter(properties, new CustomerMetrics(meterRegistry));
+    }
+
+    @Test
+    void testFilter_BurstAboveCapacity_RejectedWithRetryAfter() throws Exception {
+        assertEquals(200, perform(request("192.168.0.1")).getStatus());
+        assertEquals(200, perform(request("192.168.0.1")).getStatus());
+
+        MockHttpServletResponse rejected = perform(request("192.168.0.1"));
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("2", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("Sorry, too many requests, try again later.", rejected.getContentAsString());
+        assertEquals(1.0, meterRegistry.get(CustomerMetrics.REJECTED_REQUESTS)
+                .tag("limit", RateLimitFilter.RATE_LIMIT).counter().count());
+    }
+
+    @Test
+    void testFilter_ClientsHaveSeparateBuckets() throws Exception {
+        perform(request("192.168.0.1"));
+        perform(request("192.168.0.1"));
+
+        assertEquals(200, perform(request("192.168.0.2")).getStatus());
+    }
+
+    @Test
+    void testFilter_ClientHeaderFromUntrustedCaller_Ignored() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = request("192.168.0.1");
+            request.addHeader("X-Client-Id", "fresh-" + i);
+            perform(request);
+        }
+        MockHttpServletRequest request = request("192.168.0.1");
+        request.addHeader("X-Client-Id", "fresh-2");
+
+        assertEquals(429, perform(request).getStatus());
+    }
+
+    @Test
+    void testFilter_ClientHeaderFromTrustedProxy_SeparatesClients() throws Exception {
+        MockHttpServletRequest first = request(PROXY);
+        first.addHeader("X-Client-Id", "client-a");
+        perform(first);
+        perform(first);
+
+        MockHttpServletRequest other = request(PROXY);
+        other.addHeader("X-Client-Id", "client-b");
+
+        assertEquals(429, perform(first).getStatus());
+        assertEquals(200, perform(other).getStatus());
+    }
+
+    @Test
+    void testFilter_ForwardedForFromTrustedProxy_UsesLastUntrustedHop() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = request(PROXY);
+            request.addHeader(RateLimitFilter.FORWARDED_FOR, "1.1.1." + i + ", 192.168.0.1");
+            perform(request);
+        }
+        MockHttpServletRequest spoofed = request(PROXY);
+        spoofed.addHeader(RateLimitFilter.FORWARDED_FOR, "1.1.1.9, 192.168.0.1, " + PROXY);
+        MockHttpServletRequest other = request(PROXY);
+        other.addHeader(RateLimitFilter.FORWARDED_FOR, "192.168.0.2");
+
+        assertEquals(429, perform(spoofed).getStatus());
+        assertEquals(200, perform(other).getStatus());
+    }
+
+    @Test
+    void testFilter_AuthenticatedPrincipal_HasOwnBucket() throws Exception {
+        perform(request("192.168.0.1"));
+        perform(request("192.168.0.1"));
+        MockHttpServletRequest request = request("192.168.0.1");
+        request.setUserPrincipal(() -> "alice");
+
+        assertEquals(200, perform(request).getStatus());
+    }
+
+    @Test
+    void testTokenBucket_RefillsOverTime() {
+        long start = 0;
+        TokenBucket bucket = new TokenBucket(2, 10, start);
+        assertEquals(0, bucket.tryConsume(start));
+        assertEquals(0, bucket.tryConsume(start));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.tryConsume(start));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(50), bucket.tryConsume(start + TimeUnit.MILLISECONDS.toNanos(50)));
+        assertEquals(0, bucket.tryConsume(start + TimeUnit.MILLISECONDS.toNanos(100)));
+    }
+
+    @Test
+    void testTokenBucket_NeverExceedsCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 10, 0);
+        long later = TimeUnit.SECONDS.toNanos(60);
+        assertEquals(0, bucket.tryConsume(later));
+        assertEquals(0, bucket.tryConsume(later));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.tryConsume(later));
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/customer/getById/1");
+        request.setServletPath("/api/v1/customer/getById/1");
+        request.setRemoteAddr(remoteAddress);
+        return request;
+    }
+}
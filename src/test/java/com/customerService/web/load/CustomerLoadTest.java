@@ -0,0 +1,233 @@
+package com.customerService.web.load;
+
+import com.customerService.model.Address;
+import com.customerService.model.Customer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Open-loop load generator against the running application on H2 (MySQL mode), seeded by the Flyway scripts
+ * plus db/loadtest. Requests are started on a fixed schedule and latency is measured from the scheduled start,
+ * so a slow server shows up as latency instead of a lower request rate.
+ * A warm-up at the same rate runs first and is left out of the report. saveAll posts load.bulk-size customers
+ * at once, enough to need more than one id block per request.
+ * Excluded from the normal build, run with: mvn -Pload-test test [-Dload.rate=500 -Dload.duration-s=60
+ * -Dload.mix=getById:60,allCustomers:1,save:15,saveAll:2,edit:15,delete:9 -Dload.seed-count=10000]
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.flyway.locations=classpath:db/migration,classpath:db/loadtest",
+        "spring.flyway.placeholders.seedCount=${load.seed-count:10000}",
+        "logging.level.com.customerService=WARN",
+        "logging.level.com.customerService.web.load=INFO"})
+public class CustomerLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerLoadTest.class);
+
+    private static final String URL = "/api/v1/customer";
+    private static final long FIRST_SEEDED_ID = 1001;
+
+    private final int rate = Integer.getInteger("load.rate", 200);
+    private final int durationSeconds = Integer.getInteger("load.duration-s", 30);
+    private final int warmupSeconds = Integer.getInteger("load.warmup-s", 10);
+    private final int threads = Integer.getInteger("load.threads", 64);
+    private final int seedCount = Integer.getInteger("load.seed-count", 10000);
+    private final int bulkSize = Integer.getInteger("load.bulk-size", 120);
+    private final double maxErrorRate = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+    private final String mix = System.getProperty("load.mix", "getById:60,allCustomers:1,save:15,saveAll:2,edit:15,delete:9");
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+    private final Map<String, LongAdder> notFound = new LinkedHashMap<>();
+    private final Map<String, Timer> timers = new LinkedHashMap<>();
+    private final AtomicInteger nextEmail = new AtomicInteger();
+    private final AtomicInteger nextDeleteId = new AtomicInteger();
+
+    @Test
+    void runMixedLoad() throws InterruptedException {
+        List<String> schedule = parseMix();
+        nextDeleteId.set((int) FIRST_SEEDED_ID + seedCount - 1);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        Random random = new Random(42);
+
+        run(schedule, random, workers, warmupSeconds);
+        registry.clear();
+        timers.replaceAll((operation, timer) -> timer(operation));
+        errors.values().forEach(LongAdder::reset);
+        notFound.values().forEach(LongAdder::reset);
+
+        long elapsedNanos = run(schedule, random, workers, durationSeconds);
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+
+        double errorRate = report(elapsedNanos);
+        assertTrue(errorRate <= maxErrorRate, "Error rate " + errorRate + " is above " + maxErrorRate);
+    }
+
+    /**
+     * Starts requests at the target rate for the given time and waits until all of them completed.
+     * A run that does not finish fails, its numbers would only cover the requests that got through.
+     */
+    private long run(List<String> schedule, Random random, ExecutorService workers, int seconds)
+            throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = (long) rate * seconds;
+        CountDownLatch completed = new CountDownLatch((int) total);
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long scheduledAt = start + i * intervalNanos;
+            long wait = scheduledAt - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            String operation = schedule.get(random.nextInt(schedule.size()));
+            workers.execute(() -> {
+                try {
+                    call(operation, scheduledAt);
+                } finally {
+                    completed.countDown();
+                }
+            });
+        }
+        assertTrue(completed.await(5, TimeUnit.MINUTES),
+                completed.getCount() + " of " + total + " requests did not complete within 5 minutes");
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Expands "getById:60,save:15" into a list where every operation appears as often as its weight.
+     */
+    private List<String> parseMix() {
+        List<String> schedule = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            String operation = parts[0];
+            for (int i = 0; i < Integer.parseInt(parts[1]); i++) {
+                schedule.add(operation);
+            }
+            timers.put(operation, timer(operation));
+            errors.put(operation, new LongAdder());
+            notFound.put(operation, new LongAdder());
+        }
+        return schedule;
+    }
+
+    private Timer timer(String operation) {
+        return Timer.builder("load.request")
+                .tag("operation", operation)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .percentilePrecision(3)
+                .distributionStatisticExpiry(Duration.ofHours(1))
+                .distributionStatisticBufferLength(1)
+                .register(registry);
+    }
+
+    private void call(String operation, long scheduledAt) {
+        int status;
+        try {
+            status = send(operation).getStatusCodeValue();
+        } catch (RuntimeException e) {
+            status = -1;
+        }
+        timers.get(operation).record(System.nanoTime() - scheduledAt, TimeUnit.NANOSECONDS);
+        if (status == 404) {
+            notFound.get(operation).increment();
+        } else if (status < 200 || status >= 300) {
+            errors.get(operation).increment();
+        }
+    }
+
+    private ResponseEntity<String> send(String operation) {
+        long id = FIRST_SEEDED_ID + ThreadLocalRandom.current().nextInt(seedCount);
+        switch (operation) {
+            case "getById":
+                return restTemplate.getForEntity(URL + "/getById/" + id, String.class);
+            case "allCustomers":
+                return restTemplate.getForEntity(URL + "/allCustomers", String.class);
+            case "save":
+                Customer customer = customer("new" + nextEmail.incrementAndGet());
+                return restTemplate.postForEntity(URL + "/save", customer, String.class);
+            case "saveAll":
+                List<Customer> customers = new ArrayList<>();
+                for (int i = 0; i < bulkSize; i++) {
+                    customers.add(customer("new" + nextEmail.incrementAndGet()));
+                }
+                return restTemplate.postForEntity(URL + "/saveAll", customers, String.class);
+            case "edit":
+                return restTemplate.exchange(URL + "/edit/" + id, HttpMethod.PUT,
+                        new HttpEntity<>(customer(String.valueOf(id))), String.class);
+            case "delete":
+                return restTemplate.exchange(URL + "/delete/" + nextDeleteId.getAndDecrement(), HttpMethod.DELETE,
+                        null, String.class);
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    private static Customer customer(String key) {
+        Address address = new Address(null, "2000000000", "Latvia", "Riga", "LV-1010");
+        return new Customer(null, "load" + key + "@example.com", "password", "First" + key, "Last" + key,
+                address, null);
+    }
+
+    private double report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        long allRequests = 0;
+        long allErrors = 0;
+        log.info("Load test: target {} req/s for {} s after {} s warm-up, {} threads, mix {}",
+                rate, durationSeconds, warmupSeconds, threads, mix);
+        log.info(String.format("%-14s %9s %10s %9s %9s %9s %8s %8s",
+                "operation", "requests", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "errors", "404"));
+        for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+            String operation = entry.getKey();
+            HistogramSnapshot snapshot = entry.getValue().takeSnapshot();
+            ValueAtPercentile[] percentiles = snapshot.percentileValues();
+            long count = snapshot.count();
+            long operationErrors = errors.get(operation).sum();
+            allRequests += count;
+            allErrors += operationErrors;
+            log.info(String.format("%-14s %9d %10.1f %9.1f %9.1f %9.1f %8d %8d",
+                    operation, count, count / seconds,
+                    percentiles[0].value(TimeUnit.MILLISECONDS),
+                    percentiles[1].value(TimeUnit.MILLISECONDS),
+                    percentiles[2].value(TimeUnit.MILLISECONDS),
+                    operationErrors, notFound.get(operation).sum()));
+        }
+        double errorRate = allRequests == 0 ? 0 : (double) allErrors / allRequests;
+        log.info(String.format("total %d requests in %.1f s, %.1f req/s, error rate %.4f",
+                allRequests, seconds, allRequests / seconds, errorRate));
+        return errorRate;
+    }
+}
@@ -0,0 +1,188 @@
+package com.customerService.web.stream;
+
+import com.customerService.business.events.CustomerChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CustomerChangeBroadcasterTest {
+
+    private CustomerChangeBroadcaster broadcaster;
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    @BeforeEach
+    public void init() {
+        broadcaster = new CustomerChangeBroadcaster();
+        ReflectionTestUtils.setField(broadcaster, "taskExecutor", (org.springframework.core.task.TaskExecutor) tasks::add);
+        ReflectionTestUtils.setField(broadcaster, "replaySize", 3);
+        ReflectionTestUtils.setField(broadcaster, "bufferSize", 2);
+        ReflectionTestUtils.setField(broadcaster, "lastSequence", 0L);
+        ReflectionTestUtils.setField(broadcaster, "sendTimeout", 10000L);
+    }
+
+    @Test
+    void testOnCustomerChange_SendsIdNameAndEvent() {
+        CapturingEmitter emitter = subscribe(null);
+        publish(CustomerChangeEvent.Type.CREATED, 7L);
+        runTasks();
+        assertEquals(Collections.singletonList("1:created:7"), emitter.events);
+    }
+
+    @Test
+    void testOnCustomerChange_SlowSubscriberGetsLatestChangePerCustomer() {
+        CapturingEmitter emitter = subscribe(null);
+        publish(CustomerChangeEvent.Type.UPDATED, 1L);
+        publish(CustomerChangeEvent.Type.UPDATED, 2L);
+        publish(CustomerChangeEvent.Type.DELETED, 1L);
+        runTasks();
+        assertEquals(Arrays.asList("2:updated:2", "3:deleted:1"), emitter.events);
+    }
+
+    @Test
+    void testOnCustomerChange_BufferOverflow_DisconnectsSubscriber() {
+        CapturingEmitter emitter = subscribe(null);
+        publish(CustomerChangeEvent.Type.UPDATED, 1L);
+        publish(CustomerChangeEvent.Type.UPDATED, 2L);
+        publish(CustomerChangeEvent.Type.UPDATED, 3L);
+        runTasks();
+        assertTrue(emitter.events.isEmpty());
+        assertTrue(emitter.failed);
+        assertEquals(0, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void testSubscribe_LastEventId_ReplaysLaterChanges() {
+        publish(CustomerChangeEvent.Type.CREATED, 1L);
+        publish(CustomerChangeEvent.Type.CREATED, 2L);
+        publish(CustomerChangeEvent.Type.CREATED, 3L);
+        CapturingEmitter emitter = subscribe(1L);
+        runTasks();
+        assertEquals(Arrays.asList("2:created:2", "3:created:3"), emitter.events);
+    }
+
+    @Test
+    void testSubscribe_LastEventIdNoLongerKept_SendsResetFirst() {
+        for (long id = 1; id <= 4; id++) {
+            publish(CustomerChangeEvent.Type.CREATED, id);
+        }
+        CapturingEmitter emitter = subscribe(0L);
+        runTasks();
+        assertEquals("reset", emitter.events.get(0));
+    }
+
+    @Test
+    void testSubscribe_MissedChangesExceedBuffer_OnlyReset() {
+        publish(CustomerChangeEvent.Type.CREATED, 1L);
+        publish(CustomerChangeEvent.Type.CREATED, 2L);
+        publish(CustomerChangeEvent.Type.CREATED, 3L);
+        CapturingEmitter emitter = subscribe(0L);
+        runTasks();
+        assertEquals(Collections.singletonList("reset"), emitter.events);
+        assertEquals(1, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void testOnCustomerChange_SendBlockedTooLong_DropsSubscriber() throws InterruptedException {
+        ReflectionTestUtils.setField(broadcaster, "sendTimeout", 10L);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CapturingEmitter blocked = new CapturingEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                sending.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(builder);
+            }
+        };
+        broadcaster.subscribe(blocked, null);
+        publish(CustomerChangeEvent.Type.CREATED, 1L);
+        Thread drain = new Thread(tasks.remove(0));
+        drain.start();
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+
+        publish(CustomerChangeEvent.Type.CREATED, 2L);
+        assertTrue(blocked.failed);
+        assertEquals(0, broadcaster.getSubscriberCount());
+        release.countDown();
+        drain.join(5000);
+        assertEquals(Collections.singletonList("1:created:1"), blocked.events);
+    }
+
+    @Test
+    void testSubscribe_ExecutorFull_DisconnectsSubscriber() {
+        ReflectionTestUtils.setField(broadcaster, "taskExecutor", (org.springframework.core.task.TaskExecutor) task -> {
+            throw new TaskRejectedException("full");
+        });
+        CapturingEmitter emitter = subscribe(null);
+        assertTrue(emitter.failed);
+        assertEquals(0, broadcaster.getSubscriberCount());
+    }
+
+    private CapturingEmitter subscribe(Long lastEventId) {
+        CapturingEmitter emitter = new CapturingEmitter();
+        broadcaster.subscribe(emitter, lastEventId);
+        return emitter;
+    }
+
+    private void publish(CustomerChangeEvent.Type type, Long customerId) {
+        broadcaster.onCustomerChange(new CustomerChangeEvent(type, customerId, null));
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    /**
+     * Records every event as "id:name:customerId", or only the name for events without data object.
+     */
+    private static class CapturingEmitter extends SseEmitter {
+        private final List<String> events = new ArrayList<>();
+        private boolean failed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            Set<ResponseBodyEmitter.DataWithMediaType> parts = builder.build();
+            StringBuilder text = new StringBuilder();
+            CustomerChangeEvent event = null;
+            for (ResponseBodyEmitter.DataWithMediaType part : parts) {
+                if (part.getData() instanceof CustomerChangeEvent) {
+                    event = (CustomerChangeEvent) part.getData();
+                } else {
+                    text.append(part.getData());
+                }
+            }
+            if (event == null) {
+                events.add(text.toString().contains("event:reset") ? "reset" : text.toString());
+            } else {
+                String id = text.substring(text.indexOf("id:") + 3, text.indexOf("\n"));
+                events.add(id + ":" + event.getType().name().toLowerCase() + ":" + event.getCustomerId());
+            }
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            failed = true;
+        }
+    }
+}
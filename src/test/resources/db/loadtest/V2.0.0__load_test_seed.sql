@@ -0,0 +1,17 @@
+-- Load test data, H2 only: applied after the application migrations when classpath:db/loadtest is added
+-- to spring.flyway.locations. Seeded ids start at 1001, customer i is load<i>@example.com.
+
+INSERT INTO address (id, phone_number, country, city, postal_code)
+SELECT 1000 + n, LPAD(CAST(n AS VARCHAR), 10, '0'),
+       CASEWHEN(MOD(n, 2) = 0, 'Latvia', 'Estonia'),
+       CASEWHEN(MOD(n, 2) = 0, 'Riga', 'Tallinn'),
+       CONCAT('LV-', 1000 + MOD(n, 9000))
+FROM SYSTEM_RANGE(1, ${seedCount}) AS seed(n);
+
+INSERT INTO customer (id, email, password, first_name, last_name, address_id)
+SELECT 1000 + n, CONCAT('load', 1000 + n, '@example.com'), 'password',
+       CONCAT('First', n), CONCAT('Last', n), 1000 + n
+FROM SYSTEM_RANGE(1, ${seedCount}) AS seed(n);
+
+UPDATE id_sequence SET next_val = (SELECT MAX(id) + 1 FROM address) WHERE sequence_name = 'address';
+UPDATE id_sequence SET next_val = (SELECT MAX(id) + 1 FROM customer) WHERE sequence_name = 'customer';